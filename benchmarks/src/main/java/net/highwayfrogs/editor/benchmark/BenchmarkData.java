@@ -0,0 +1,88 @@
+package net.highwayfrogs.editor.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic synthetic data for the benchmarks.
+ * Created by agent on 10/18/2026.
+ */
+public class BenchmarkData {
+
+    /**
+     * Creates data which compresses similarly to game files: a mix of literal bytes, runs of zeroes, and repeats of earlier data.
+     * @param size The amount of bytes to create.
+     * @param seed The random seed.
+     * @return data
+     */
+    public static byte[] makeCompressibleData(int size, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[size];
+
+        int index = 0;
+        while (index < size) {
+            int length = Math.min(size - index, 4 + random.nextInt(60));
+            int type = random.nextInt(4);
+            if (type == 0 && index > 0) { // Repeat earlier data.
+                int start = random.nextInt(index);
+                for (int i = 0; i < length; i++)
+                    data[index + i] = data[start + (i % (index - start))];
+            } else if (type == 1) { // Leave a run of zeroes.
+                // Arrays are zero-filled already.
+            } else { // Small values, like coordinates and flags.
+                for (int i = 0; i < length; i++)
+                    data[index + i] = (byte) random.nextInt(32);
+            }
+
+            index += length;
+        }
+
+        return data;
+    }
+
+    /**
+     * Creates a mono 16-bit PCM .wav file containing a tone with some noise.
+     * @param sampleCount The amount of samples.
+     * @param sampleRate  The sample rate.
+     * @return wavBytes
+     */
+    public static byte[] makeWav(int sampleCount, int sampleRate) {
+        Random random = new Random(sampleCount);
+        int dataSize = sampleCount * 2;
+        byte[] wav = new byte[44 + dataSize];
+        writeString(wav, 0, "RIFF");
+        writeInt(wav, 4, 36 + dataSize);
+        writeString(wav, 8, "WAVE");
+        writeString(wav, 12, "fmt ");
+        writeInt(wav, 16, 16); // Chunk size.
+        writeShort(wav, 20, 1); // PCM.
+        writeShort(wav, 22, 1); // Channels.
+        writeInt(wav, 24, sampleRate);
+        writeInt(wav, 28, sampleRate * 2);
+        writeShort(wav, 32, 2); // Block align.
+        writeShort(wav, 34, 16); // Bits per sample.
+        writeString(wav, 36, "data");
+        writeInt(wav, 40, dataSize);
+
+        for (int i = 0; i < sampleCount; i++) {
+            double sample = Math.sin(i * 2 * Math.PI * 440 / sampleRate) * 12000 + random.nextGaussian() * 500;
+            writeShort(wav, 44 + (i * 2), (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample)));
+        }
+
+        return wav;
+    }
+
+    private static void writeString(byte[] data, int index, String value) {
+        for (int i = 0; i < value.length(); i++)
+            data[index + i] = (byte) value.charAt(i);
+    }
+
+    private static void writeShort(byte[] data, int index, int value) {
+        data[index] = (byte) value;
+        data[index + 1] = (byte) (value >> 8);
+    }
+
+    private static void writeInt(byte[] data, int index, int value) {
+        writeShort(data, index, value);
+        writeShort(data, index + 2, value >> 16);
+    }
+}
@@ -0,0 +1,32 @@
+package net.highwayfrogs.editor.benchmark;
+
+import net.highwayfrogs.editor.Constants;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the FrogLord benchmarks.
+ * Accepts the standard JMH command-line options, but writes the results as JSON by default, so they can be compared between versions.
+ * Usage: java -jar target/benchmarks.jar [JMH options]
+ * Created by agent on 10/18/2026.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args); // Let JMH handle informational commands.
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+        if (!commandLineOptions.getResult().hasValue())
+            builder.result("froglord-benchmarks-" + Constants.VERSION + ".json");
+
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package net.highwayfrogs.editor.benchmark;
+
+import net.highwayfrogs.editor.file.reader.ArraySource;
+import net.highwayfrogs.editor.file.reader.DataReader;
+import net.highwayfrogs.editor.file.writer.ArrayReceiver;
+import net.highwayfrogs.editor.file.writer.DataWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading primitives with DataReader, and writing them with DataWriter into an ArrayReceiver.
+ * Created by agent on 10/18/2026.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataIOBenchmark {
+    private static final int CHUNK_SIZE = 4096;
+
+    @Param({"1048576"})
+    private int byteCount;
+
+    private byte[] data;
+    private short[] shortValues;
+    private int[] intValues;
+    private byte[][] chunks;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        this.data = new byte[this.byteCount];
+        random.nextBytes(this.data);
+        this.shortValues = new short[this.byteCount / 2];
+        this.intValues = new int[this.byteCount / 4];
+        for (int i = 0; i < this.intValues.length; i++)
+            this.intValues[i] = random.nextInt();
+
+        this.chunks = new byte[(this.byteCount + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+        for (int i = 0; i < this.chunks.length; i++)
+            this.chunks[i] = Arrays.copyOfRange(this.data, i * CHUNK_SIZE, Math.min(this.byteCount, (i + 1) * CHUNK_SIZE));
+    }
+
+    @Benchmark
+    public int readBytes() {
+        DataReader reader = new DataReader(new ArraySource(this.data));
+        int sum = 0;
+        while (reader.hasMore())
+            sum += reader.readByte();
+        return sum;
+    }
+
+    @Benchmark
+    public int readShorts() {
+        DataReader reader = new DataReader(new ArraySource(this.data));
+        int sum = 0;
+        for (int i = 0; i < this.byteCount / 2; i++)
+            sum += reader.readShort();
+        return sum;
+    }
+
+    @Benchmark
+    public int readInts() {
+        DataReader reader = new DataReader(new ArraySource(this.data));
+        int sum = 0;
+        for (int i = 0; i < this.byteCount / 4; i++)
+            sum += reader.readInt();
+        return sum;
+    }
+
+    @Benchmark
+    public float readFloats() {
+        DataReader reader = new DataReader(new ArraySource(this.data));
+        float sum = 0;
+        for (int i = 0; i < this.byteCount / 4; i++)
+            sum += reader.readFloat();
+        return sum;
+    }
+
+    @Benchmark
+    public short[] readShortArray() {
+        return new DataReader(new ArraySource(this.data)).readShorts(this.shortValues);
+    }
+
+    @Benchmark
+    public int[] readIntArray() {
+        return new DataReader(new ArraySource(this.data)).readInts(new int[this.byteCount / 4]);
+    }
+
+    @Benchmark
+    public byte[] writeBytes() {
+        ArrayReceiver receiver = new ArrayReceiver();
+        DataWriter writer = new DataWriter(receiver);
+        for (byte value : this.data)
+            writer.writeByte(value);
+        return receiver.toArray();
+    }
+
+    @Benchmark
+    public byte[] writeInts() {
+        ArrayReceiver receiver = new ArrayReceiver();
+        DataWriter writer = new DataWriter(receiver);
+        for (int value : this.intValues)
+            writer.writeInt(value);
+        return receiver.toArray();
+    }
+
+    @Benchmark
+    public byte[] writeIntArray() {
+        ArrayReceiver receiver = new ArrayReceiver();
+        new DataWriter(receiver).writeInts(this.intValues);
+        return receiver.toArray();
+    }
+
+    @Benchmark
+    public byte[] writeByteArray() {
+        ArrayReceiver receiver = new ArrayReceiver();
+        DataWriter writer = new DataWriter(receiver);
+        for (byte[] chunk : this.chunks)
+            writer.writeBytes(chunk);
+        return receiver.toArray();
+    }
+}
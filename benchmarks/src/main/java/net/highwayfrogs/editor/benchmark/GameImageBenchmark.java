@@ -0,0 +1,66 @@
+package net.highwayfrogs.editor.benchmark;
+
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.image.Image;
+import net.highwayfrogs.editor.file.vlo.GameImage;
+import net.highwayfrogs.editor.file.vlo.ImageFilterSettings;
+import net.highwayfrogs.editor.file.vlo.ImageFilterSettings.ImageState;
+import net.highwayfrogs.editor.file.vlo.VLOArchive;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks converting a GameImage's pixel data to a BufferedImage and to a JavaFX image, and applying export filters to it.
+ * Created by agent on 10/18/2026.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameImageBenchmark {
+    @Param({"64", "256"})
+    private int size;
+
+    private GameImage image;
+    private final ImageFilterSettings filterSettings = new ImageFilterSettings(ImageState.EXPORT)
+            .setTrimEdges(true).setAllowTransparency(true).setAllowFlip(true).setScaleToMaxSize(true);
+
+    @Setup
+    public void setup() {
+        new JFXPanel(); // Starts the JavaFX toolkit, which file icons need.
+
+        byte[] pixels = new byte[this.size * this.size * 4];
+        new Random(this.size).nextBytes(pixels);
+
+        this.image = new GameImage(new VLOArchive());
+        this.image.setFullWidth((short) this.size);
+        this.image.setFullHeight((short) this.size);
+        this.image.setImageBytes(pixels);
+        this.image.setIngameWidth((short) (this.size - 2));
+        this.image.setIngameHeight((short) (this.size - 2));
+        this.image.setFlags((short) GameImage.FLAG_BLACK_IS_TRANSPARENT);
+    }
+
+    @Benchmark
+    public BufferedImage toBufferedImage() {
+        this.image.invalidateCache(); // Measure the conversion, not the cache.
+        return this.image.toBufferedImage();
+    }
+
+    @Benchmark
+    public Image toFXImage() {
+        this.image.invalidateCache();
+        return this.image.toFXImage();
+    }
+
+    @Benchmark
+    public BufferedImage applyFilters() {
+        this.filterSettings.invalidateRenderCache();
+        return this.image.toBufferedImage(this.filterSettings);
+    }
+}
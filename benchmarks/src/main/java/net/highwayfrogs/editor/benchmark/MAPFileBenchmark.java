@@ -0,0 +1,92 @@
+package net.highwayfrogs.editor.benchmark;
+
+import javafx.embed.swing.JFXPanel;
+import net.highwayfrogs.editor.file.MWDFile;
+import net.highwayfrogs.editor.file.MWIFile.FileEntry;
+import net.highwayfrogs.editor.file.config.FroggerEXEInfo;
+import net.highwayfrogs.editor.file.map.MAPFile;
+import net.highwayfrogs.editor.file.packers.PP20Unpacker;
+import net.highwayfrogs.editor.file.reader.ArraySource;
+import net.highwayfrogs.editor.file.reader.DataReader;
+import net.highwayfrogs.editor.file.reader.MappedFileSource;
+import net.highwayfrogs.editor.file.writer.ArrayReceiver;
+import net.highwayfrogs.editor.file.writer.DataWriter;
+import net.highwayfrogs.editor.gui.GUIMain;
+import net.highwayfrogs.editor.utils.Utils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading and saving a synthetic map, made with MAPFile.randomizeMap.
+ * Maps need an executable config to load, so this requires a copy of the game:
+ * -Dfroglord.exe=[Executable] -Dfroglord.mwd=[MWD] -Dfroglord.config=[Config Name, eg: pc-retail-v1.0] -Dfroglord.map=[Map to base the synthetic map on, default: SUB1.MAP]
+ * Created by agent on 10/18/2026.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MAPFileBenchmark {
+    @Param({"16", "64"})
+    private int tileCount;
+
+    private MWDFile mwd;
+    private FileEntry mapEntry;
+    private MAPFile map;
+    private byte[] mapBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        new JFXPanel(); // Starts the JavaFX toolkit, which file icons need.
+
+        File exeFile = new File(getProperty("froglord.exe"));
+        File mwdFile = new File(getProperty("froglord.mwd"));
+        String configName = getProperty("froglord.config");
+        String mapName = System.getProperty("froglord.map", "SUB1.MAP");
+
+        FroggerEXEInfo config = new FroggerEXEInfo(exeFile, Utils.getResourceStream("exes/" + configName + ".cfg"), configName, false);
+        GUIMain.EXE_CONFIG = config;
+        config.setup();
+        this.mwd = config.getMWD();
+        this.mapEntry = config.getResourceEntry(mapName);
+        if (this.mapEntry == null)
+            throw new IllegalStateException("Could not find the map '" + mapName + "'.");
+
+        DataReader mwdReader = new DataReader(new MappedFileSource(mwdFile));
+        mwdReader.setIndex(this.mapEntry.getArchiveOffset());
+        byte[] fileBytes = mwdReader.readBytes(this.mapEntry.getArchiveSize());
+        if (this.mapEntry.isCompressed())
+            fileBytes = PP20Unpacker.unpackData(fileBytes);
+
+        this.map = this.mwd.loadFile(fileBytes.length, this.mapEntry, null);
+        this.map.load(new DataReader(new ArraySource(fileBytes)));
+        this.map.randomizeMap(this.tileCount, this.tileCount);
+        this.mapBytes = saveMap();
+    }
+
+    @Benchmark
+    public MAPFile loadMap() {
+        MAPFile loadMap = this.mwd.loadFile(this.mapBytes.length, this.mapEntry, null);
+        loadMap.load(new DataReader(new ArraySource(this.mapBytes)));
+        this.mwd.getEntryMap().remove(loadMap); // Don't keep every loaded map registered.
+        return loadMap;
+    }
+
+    @Benchmark
+    public byte[] saveMap() {
+        ArrayReceiver receiver = new ArrayReceiver();
+        this.map.save(new DataWriter(receiver));
+        return receiver.toArray();
+    }
+
+    private static String getProperty(String name) {
+        String value = System.getProperty(name);
+        if (value == null)
+            throw new IllegalStateException("The system property '" + name + "' must be set to run map benchmarks. (Forked JVMs get it with: -jvmArgsAppend -D" + name + "=...)");
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package net.highwayfrogs.editor.benchmark;
+
+import net.highwayfrogs.editor.file.packers.PP20Packer;
+import net.highwayfrogs.editor.file.packers.PP20Packer.PP20Effort;
+import net.highwayfrogs.editor.file.packers.PP20Unpacker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks PP20 (PowerPacker) compression and decompression.
+ * Created by agent on 10/18/2026.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PP20Benchmark {
+    @Param({"16384", "131072"})
+    private int byteCount;
+
+    @Param({"FAST", "EXTREME"})
+    private PP20Effort effort; // The data to unpack is packed with this effort too, since it changes the packed stream.
+
+    private byte[] unpackedData;
+    private byte[] packedData;
+    private byte[] unpackBuffer;
+
+    @Setup
+    public void setup() {
+        this.unpackedData = BenchmarkData.makeCompressibleData(this.byteCount, 1);
+        this.packedData = PP20Packer.packData(this.unpackedData, this.effort);
+        this.unpackBuffer = new byte[this.unpackedData.length];
+    }
+
+    @Benchmark
+    public byte[] packData() {
+        return PP20Packer.packData(this.unpackedData, this.effort);
+    }
+
+    @Benchmark
+    public byte[] unpackData() {
+        return PP20Unpacker.unpackData(this.packedData);
+    }
+
+    @Benchmark
+    public int unpackDataIntoBuffer() {
+        return PP20Unpacker.unpackData(this.packedData, this.unpackBuffer, 0);
+    }
+}
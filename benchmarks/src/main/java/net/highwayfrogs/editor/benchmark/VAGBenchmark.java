@@ -0,0 +1,43 @@
+package net.highwayfrogs.editor.benchmark;
+
+import net.highwayfrogs.editor.file.sound.psx.VAGUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks converting between PSX VAG audio and .wav files.
+ * Created by agent on 10/18/2026.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VAGBenchmark {
+    @Param({"11025"})
+    private int sampleRate;
+
+    @Param({"5"})
+    private int seconds;
+
+    private byte[] wavData;
+    private byte[] vagData;
+
+    @Setup
+    public void setup() {
+        this.wavData = BenchmarkData.makeWav(this.sampleRate * this.seconds, this.sampleRate);
+        this.vagData = VAGUtil.wavToVag(this.wavData);
+    }
+
+    @Benchmark
+    public byte[] rawVagToWav() {
+        return VAGUtil.rawVagToWav(this.vagData, this.sampleRate);
+    }
+
+    @Benchmark
+    public byte[] wavToVag() {
+        return VAGUtil.wavToVag(this.wavData);
+    }
+}
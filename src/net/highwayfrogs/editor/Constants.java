@@ -55,6 +55,8 @@ public class Constants {
 
     public static final boolean ENABLE_WAD_FORMATS = true;
     public static final boolean LOG_EXE_INFO = false;
+    public static final boolean ENABLE_MEMORY_MAPPED_FILES = false; // Large input files (MWD, data.bin) are memory-mapped instead of being read onto the heap. Off by default, because Windows can't replace a file while it is mapped, which breaks saving over the MWD that was opened.
+    public static final boolean ENABLE_LAZY_MWD_LOADING = true; // MWD files are only loaded once they are used, instead of all of them being loaded when the MWD is opened.
 
     public static final List<Integer> PC_ISLAND_REMAP = Arrays.asList(221, 862, 860, 859, 688, 863, 857, 694, 722, 854, 729, 857, 854, 853, 850, 3, 863);
     public static final List<Integer> PSX_ISLAND_REMAP = Arrays.asList(363, 1191, 1189, 1188, 996, 1192, 1186, 1002, 1033, 1183, 1040, 1186, 1183, 1182, 1179, 4, 1192);
@@ -94,7 +94,7 @@ public abstract class GameFile extends GameObject {
      */
     @SneakyThrows
     public static Image loadIcon(String iconName) {
-        return Utils.toFXImage(ImageIO.read(Utils.getResource("icons/" + iconName + ".png")), false);
+        return Utils.toFXImage(ImageIO.read(Utils.getResource("icons/" + iconName + ".png")));
     }
 
     /**
@@ -1,5 +1,6 @@
 package net.highwayfrogs.editor.file;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.Constants;
@@ -10,6 +11,7 @@ import net.highwayfrogs.editor.file.map.MAPTheme;
 import net.highwayfrogs.editor.file.map.SkyLand;
 import net.highwayfrogs.editor.file.mof.MOFHolder;
 import net.highwayfrogs.editor.file.packers.PP20Packer;
+import net.highwayfrogs.editor.file.packers.PP20Packer.PP20Effort;
 import net.highwayfrogs.editor.file.packers.PP20Unpacker;
 import net.highwayfrogs.editor.file.reader.ArraySource;
 import net.highwayfrogs.editor.file.reader.DataReader;
@@ -26,14 +28,25 @@ import net.highwayfrogs.editor.file.vlo.VLOArchive;
 import net.highwayfrogs.editor.file.writer.ArrayReceiver;
 import net.highwayfrogs.editor.file.writer.DataWriter;
 import net.highwayfrogs.editor.gui.SelectionMenu;
-import net.highwayfrogs.editor.utils.FroggerVersionComparison;
+import net.highwayfrogs.editor.system.Tuple3;
 import net.highwayfrogs.editor.utils.Utils;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -45,17 +58,28 @@ import java.util.stream.Collectors;
 public class MWDFile extends GameObject {
     private final MWIFile wadIndexTable;
     private final List<GameFile> files = new ArrayList<>();
-    private final Map<GameFile, FileEntry> entryMap = new HashMap<>();
-    private final Map<FileEntry, GameFile> entryFileMap = new HashMap<>();
+    private final Map<GameFile, FileEntry> entryMap = Collections.synchronizedMap(new HashMap<>()); // Files in WADs are added while files are loaded in parallel.
+    private final Map<FileEntry, GameFile> entryFileMap = Collections.synchronizedMap(new HashMap<>());
     @Setter private BiConsumer<FileEntry, GameFile> saveCallback;
+    @Setter private PP20Effort compressionEffort = PP20Effort.EXTREME;
+    @Setter private transient File diskFile; // The MWD file which was last loaded or saved. Its contents match the file entries.
 
     private final transient Map<MAPTheme, VLOArchive> vloThemeCache = new HashMap<>();
-
-    public static String CURRENT_FILE_NAME = null;
+    @Getter(AccessLevel.NONE) private final transient Map<GameFile, DataReader> unloadedFiles = new HashMap<>(); // Files which have not been loaded yet, and their data in the MWD.
+    @Getter(AccessLevel.NONE) private final transient Map<GameFile, GameFile> soundHeaders = new HashMap<>(); // VB files, and the VH files they are loaded with.
+    @Getter(AccessLevel.NONE) private final transient Map<GameFile, Thread> loadingThreads = new HashMap<>(); // Files which are being loaded, and the threads loading them.
+    @Getter(AccessLevel.NONE) private final transient Map<Thread, GameFile> waitingThreads = new HashMap<>(); // Threads which are waiting for another thread to load a file.
+    @Getter(AccessLevel.NONE) private transient volatile GameImage[][] textureIdIndex; // The images in every VLO, indexed by texture id.
+    @Getter(AccessLevel.NONE) private transient int textureIdIndexVersion; // Increased when the index is invalidated.
+    @Getter(AccessLevel.NONE) private final transient Object textureIdIndexLock = new Object();
+
+    public static final ThreadLocal<String> CURRENT_FILE_NAME = new ThreadLocal<>(); // The file being loaded or saved by the current thread. Several files are loaded and saved at once.
     private static final String MARKER = "DAWM";
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("EEEE, d MMMM yyyy");
     private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm:ss");
     public static final ImageFilterSettings VLO_ICON_SETTING = new ImageFilterSettings(ImageState.EXPORT);
+    private static final int LOAD_THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static ExecutorService loadExecutor; // Created once it is first needed, and shared by every MWD.
 
     public MWDFile(MWIFile table) {
         this.wadIndexTable = table;
@@ -65,47 +89,259 @@ public class MWDFile extends GameObject {
     public void load(DataReader reader) {
         reader.verifyString(MARKER);
 
+        // Files are created in MWI order first, which links each VH to the VB before it. Their data is loaded afterward.
         AbstractVBFile lastVB = null; // VBs are indexed before VHs, but need to be loaded after VH. This allows us to do that.
-
         for (FileEntry entry : wadIndexTable.getEntries()) {
             if (entry.testFlag(FileEntry.FLAG_GROUP_ACCESS))
                 continue; // This file is part of a WAD archive, and isn't a file entry in the MWD, so we can't load it here.
 
-            reader.setIndex(entry.getArchiveOffset());
+            DataReader archiveData = reader.slice(entry.getArchiveOffset(), entry.getArchiveSize());
+            GameFile file = loadFile(entry.getUnpackedSize(), entry, lastVB);
+            this.unloadedFiles.put(file, archiveData);
+            if (lastVB != null && (file instanceof VHFile || file instanceof PSXVHFile))
+                this.soundHeaders.put(lastVB, file);
 
-            // Read the file. Decompress if needed.
-            byte[] fileBytes = reader.readBytes(entry.getArchiveSize());
-            if (entry.isCompressed())
-                fileBytes = PP20Unpacker.unpackData(fileBytes);
+            files.add(file);
+            lastVB = file instanceof AbstractVBFile ? (AbstractVBFile) file : null;
+        }
 
-            // Calculate the SHA1 hash.
-            if (FroggerVersionComparison.isEnabled() && entry.getSha1Hash() == null)
-                entry.setSha1Hash(Utils.calculateSHA1Hash(fileBytes));
+        if (!Constants.ENABLE_LAZY_MWD_LOADING)
+            loadAllFiles();
+    }
 
-            GameFile file = loadFile(fileBytes, entry, lastVB);
+    /**
+     * Gets the files in this MWD, loading any which have not been loaded yet.
+     * @return files
+     */
+    public List<GameFile> getFiles() {
+        loadAllFiles();
+        return this.files;
+    }
 
-            try {
-                file.load(new DataReader(new ArraySource(fileBytes)));
-            } catch (Exception ex) {
-                System.out.println("Failed to load " + entry.getDisplayName());
-                ex.printStackTrace();
+    /**
+     * Gets the files in this MWD, without loading the ones which have not been loaded yet.
+     * Use this when the file contents are not needed, such as when listing the files.
+     * @return files
+     */
+    public List<GameFile> getFilesWithoutLoading() {
+        return this.files;
+    }
 
-                //throw new RuntimeException("Failed to load " + entry.getDisplayName() + ", " + entry.getLoadedId(), ex);
+    /**
+     * Gets the file for a given file entry, loading it if it has not been loaded yet.
+     * @param entry The entry to get the file for.
+     * @return gameFile, can be null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends GameFile> T getGameFile(FileEntry entry) {
+        if (entry == null)
+            return null;
+
+        GameFile file = this.entryFileMap.get(entry);
+        if (file == null && entry.testFlag(FileEntry.FLAG_GROUP_ACCESS)) { // Files in a WAD are only known once the WAD has been loaded.
+            ensureLoaded(getGroupFile(entry));
+            file = this.entryFileMap.get(entry);
+        } else {
+            ensureLoaded(file);
+        }
+
+        return (T) file;
+    }
+
+    // Files in a WAD are indexed right after the WAD itself.
+    private GameFile getGroupFile(FileEntry entry) {
+        List<FileEntry> entries = this.wadIndexTable.getEntries();
+        for (int i = entries.indexOf(entry) - 1; i >= 0; i--)
+            if (!entries.get(i).testFlag(FileEntry.FLAG_GROUP_ACCESS))
+                return this.entryFileMap.get(entries.get(i));
+        return null;
+    }
+
+    /**
+     * Loads a file if it has not been loaded yet.
+     * When lazy loading is enabled, files are only loaded once something uses them.
+     * If another thread is already loading the file, this waits for it to finish.
+     * @param file The file to load.
+     */
+    public void ensureLoaded(GameFile file) {
+        if (file == null)
+            return;
+
+        GameFile body;
+        GameFile header;
+        synchronized (this.unloadedFiles) {
+            while (this.loadingThreads.containsKey(file)) {
+                if (isLoadingOnCurrentThread(file))
+                    return; // The file is being loaded by this thread, (or by a thread waiting on this one) so it is used while it is still loading.
+
+                this.waitingThreads.put(Thread.currentThread(), file);
+                try {
+                    this.unloadedFiles.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for " + this.entryMap.get(file).getDisplayName() + " to load.", ex);
+                } finally {
+                    this.waitingThreads.remove(Thread.currentThread());
+                }
             }
 
-            files.add(file);
-            lastVB = file instanceof AbstractVBFile ? (AbstractVBFile) file : null;
+            if (!this.unloadedFiles.containsKey(file))
+                return;
+
+            // Sound banks are split between a VB body and a VH header, which are loaded together. The VB is given its data first, then the VH loads both.
+            body = file;
+            header = this.soundHeaders.get(file);
+            if (file instanceof VHFile) {
+                body = ((VHFile) file).getVB();
+                header = file;
+            } else if (file instanceof PSXVHFile) {
+                body = ((PSXVHFile) file).getVB();
+                header = file;
+            }
+
+            this.loadingThreads.put(body, Thread.currentThread());
+            if (header != null)
+                this.loadingThreads.put(header, Thread.currentThread());
+        }
+
+        try {
+            loadUnloadedFile(body);
+            if (header != null)
+                loadUnloadedFile(header);
+        } finally {
+            synchronized (this.unloadedFiles) {
+                this.loadingThreads.remove(body);
+                if (header != null)
+                    this.loadingThreads.remove(header);
+                this.unloadedFiles.notifyAll();
+            }
+        }
+    }
+
+    // Tests if a file is being loaded by the current thread, or by a thread which is waiting on the current thread. Waiting for it would never finish.
+    private boolean isLoadingOnCurrentThread(GameFile file) {
+        Thread thread = this.loadingThreads.get(file);
+        for (int i = 0; thread != null && i <= this.waitingThreads.size(); i++) {
+            if (thread == Thread.currentThread())
+                return true;
+
+            GameFile waitingFile = this.waitingThreads.get(thread);
+            thread = waitingFile != null ? this.loadingThreads.get(waitingFile) : null;
         }
+
+        return false;
+    }
+
+    // Loads all of the files which have not been loaded yet.
+    private void loadAllFiles() {
+        loadFiles(this.files);
+    }
+
+    // Loads the files which could be or could hold a file of a given type. Files in a WAD are only known once the WAD is loaded.
+    private void loadFilesOfType(Class<? extends GameFile> fileClass) {
+        List<GameFile> loadFiles = new ArrayList<>();
+        for (GameFile file : this.files)
+            if (fileClass.isInstance(file) || file instanceof WADFile)
+                loadFiles.add(file);
+
+        loadFiles(loadFiles);
+    }
+
+    // Loads the files which have not been loaded yet. Files are decompressed and parsed on a shared pool of worker threads.
+    private void loadFiles(List<GameFile> files) {
+        List<GameFile> loadFiles = new ArrayList<>();
+        boolean loadingOnCurrentThread;
+        synchronized (this.unloadedFiles) {
+            if (this.unloadedFiles.isEmpty())
+                return;
+
+            for (GameFile file : files)
+                if (this.unloadedFiles.containsKey(file))
+                    loadFiles.add(file);
+            loadingOnCurrentThread = this.loadingThreads.containsValue(Thread.currentThread());
+        }
+
+        if (loadFiles.size() <= 1 || LOAD_THREAD_COUNT == 1 || loadingOnCurrentThread) { // A file being loaded on this thread may be needed by the other files, so they must be loaded here.
+            for (GameFile file : loadFiles)
+                ensureLoaded(file);
+            return;
+        }
+
+        ExecutorService executor = getLoadExecutor();
+        List<Future<?>> futures = new ArrayList<>(loadFiles.size());
+        try {
+            for (GameFile file : loadFiles)
+                futures.add(executor.submit(() -> ensureLoaded(file)));
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while loading the MWD.", ex);
+                } catch (ExecutionException ex) {
+                    throw new RuntimeException("Failed to load " + this.entryMap.get(loadFiles.get(i)).getDisplayName() + ".", ex.getCause());
+                }
+            }
+        } finally {
+            for (Future<?> future : futures) // The pool is shared, so files which won't be waited for are cancelled instead of shutting it down.
+                future.cancel(true);
+        }
+    }
+
+    private static synchronized ExecutorService getLoadExecutor() {
+        if (loadExecutor == null)
+            loadExecutor = newWorkerPool("MWD Load Worker", LOAD_THREAD_COUNT);
+        return loadExecutor;
+    }
+
+    private void loadUnloadedFile(GameFile file) {
+        DataReader archiveData;
+        synchronized (this.unloadedFiles) {
+            archiveData = this.unloadedFiles.remove(file);
+        }
+
+        if (archiveData == null)
+            return;
+
+        FileEntry entry = this.entryMap.get(file);
+        CURRENT_FILE_NAME.set(entry.getDisplayName());
+        try {
+            file.load(new DataReader(new ArraySource(getUnpackedData(entry, archiveData))));
+        } catch (Exception ex) {
+            System.out.println("Failed to load " + entry.getDisplayName());
+            ex.printStackTrace();
+        }
+    }
+
+    // Gets the unpacked data of a file which is loaded lazily. Each file is only loaded once, so the data isn't kept afterward.
+    private byte[] getUnpackedData(FileEntry entry, DataReader archiveData) {
+        byte[] archivedBytes = readArchivedBytes(archiveData);
+        byte[] unpackedData = entry.isCompressed() ? PP20Unpacker.unpackData(archivedBytes) : archivedBytes;
+        String unpackedDataHash = Utils.calculateSHA1Hash(unpackedData);
+        entry.setSavedDataHash(unpackedDataHash); // Allows an incremental save to tell if the file has changed.
+        if (entry.isCompressed())
+            entry.setArchivedData(unpackedDataHash, archivedBytes); // If the file is saved without changes, this data will be reused instead of compressing it again.
+
+        return unpackedData;
+    }
+
+    // Reads a file's data as it is stored in the MWD. A separate reader is used, so this is safe to call from multiple threads.
+    private static byte[] readArchivedBytes(DataReader archiveData) {
+        DataReader reader = archiveData.slice(0, archiveData.getSize());
+        return reader.readBytes(reader.getSize());
     }
 
     /**
      * Create a replacement file. (Does not actually update MWD)
+     * Once the new file replaces the old one, the caller must invalidate the texture id index, since the new file may have different images.
      * @param fileBytes The bytes to replace the file with.
      * @param oldFile   The file to replace.
      * @return replacementFile
      */
     @SuppressWarnings("unchecked")
     public <T extends GameFile> T replaceFile(byte[] fileBytes, FileEntry entry, GameFile oldFile) {
+        ensureLoaded(oldFile); // The old file may be needed to create the new one, such as the VB of a VH.
         T newFile;
 
         if (oldFile instanceof MOFHolder) {
@@ -113,12 +349,12 @@ public class MWDFile extends GameObject {
             newFile = (T) new MOFHolder(oldHolder.getTheme(), oldHolder.getCompleteMOF());
         } else {
             AbstractVBFile lastVB = (oldFile instanceof VHFile) ? ((VHFile) oldFile).getVB() : null;
-            newFile = this.loadFile(fileBytes, entry, lastVB);
+            newFile = this.loadFile(fileBytes.length, entry, lastVB);
         }
 
         entryMap.put(newFile, entry);
         entryFileMap.put(entry, newFile);
-        CURRENT_FILE_NAME = entry.getDisplayName();
+        CURRENT_FILE_NAME.set(entry.getDisplayName());
 
         newFile.load(new DataReader(new ArraySource(fileBytes)));
         return newFile;
@@ -126,13 +362,13 @@ public class MWDFile extends GameObject {
 
     /**
      * Create a GameFile instance.
-     * @param fileBytes The data to read
-     * @param entry     The file entry being loaded.
-     * @param lastVB    The lastVB value.
+     * @param fileSize The size of the (uncompressed) file data.
+     * @param entry    The file entry being loaded.
+     * @param lastVB   The lastVB value.
      * @return loadedFile
      */
     @SuppressWarnings("unchecked")
-    public <T extends GameFile> T loadFile(byte[] fileBytes, FileEntry entry, AbstractVBFile lastVB) {
+    public <T extends GameFile> T loadFile(int fileSize, FileEntry entry, AbstractVBFile lastVB) {
         // Turn the byte data into the appropriate game-file.
         GameFile file;
 
@@ -166,12 +402,12 @@ public class MWDFile extends GameObject {
                 file = getConfig().isPrototype() ? new PrototypeVBFile() : new RetailPCVBFile();
             }
         } else {
-            file = new DummyFile(fileBytes.length);
+            file = new DummyFile(fileSize);
         }
 
         entryMap.put(file, entry);
         entryFileMap.put(entry, file);
-        CURRENT_FILE_NAME = entry.getDisplayName();
+        CURRENT_FILE_NAME.set(entry.getDisplayName());
         return (T) file;
     }
 
@@ -185,40 +421,252 @@ public class MWDFile extends GameObject {
                 + "\nCreation Time: " + TIME_FORMAT.format(date)
                 + "\nThis MWD was built using FrogLord.\n");
 
+        // Files are serialized and compressed on a pool of worker threads, but they are written in their original order.
+        // Only a limited number of files are processed ahead of the writer, so memory use stays bounded.
+        int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int windowSize = threadCount * 2;
+        ExecutorService executor = newWorkerPool("MWD Save Worker", threadCount);
+
+        List<CompletableFuture<Tuple3<Integer, String, byte[]>>> futures = new ArrayList<>(files.size());
+        Map<GameFile, Integer> fileIndexMap = createFileIndexMap();
+
         int sectorOffset = 0;
         long mwdStart = System.currentTimeMillis();
-        for (GameFile file : files) {
-            FileEntry entry = entryMap.get(file);
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                while (futures.size() < files.size() && futures.size() < i + windowSize)
+                    futures.add(submitSaveTask(executor, futures, fileIndexMap, files.get(futures.size()), false));
+
+                GameFile file = files.get(i);
+                FileEntry entry = entryMap.get(file);
+
+                do { // Find the next unused sector, to write the next entry.
+                    entry.setSectorOffset(++sectorOffset);
+                } while (writer.getIndex() > entry.getArchiveOffset());
+                writer.jumpTo(entry.getArchiveOffset());
+
+                long start = System.currentTimeMillis();
+                System.out.print("Saving " + entry.getDisplayName() + " to MWD. (" + (i + 1) + "/" + files.size() + ") ");
+                if (getSaveCallback() != null)
+                    getSaveCallback().accept(entry, file);
+
+                Tuple3<Integer, String, byte[]> result = waitForSaveTask(futures, i, entry);
+                byte[] transfer = result.getC();
+                entry.setUnpackedSize(result.getA());
+                entry.setPackedSize(transfer.length);
+                if (result.getB() != null) // Files which were copied without being loaded keep their hash.
+                    entry.setSavedDataHash(result.getB());
+
+                writer.writeBytes(transfer);
+                System.out.println("Time: " + ((System.currentTimeMillis() - start) / 1000) + "s.");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("MWD Built. Total Time: " + ((System.currentTimeMillis() - mwdStart) / 1000) + "s.");
+
+        // Fill the rest of the file with null bytes.
+        GameFile lastFile = files.get(files.size() - 1);
+        writer.writeNull(Constants.CD_SECTOR_SIZE - (entryMap.get(lastFile).getArchiveSize() % Constants.CD_SECTOR_SIZE));
+    }
+
+    /**
+     * Tests if this MWD can be saved incrementally to a file.
+     * This is only possible for the MWD file which this MWD was last loaded from or saved to, since only the files which have changed are written.
+     * @param mwdFile The MWD file to save to.
+     * @return canSaveIncrementally
+     */
+    public boolean canSaveIncrementally(File mwdFile) {
+        return this.diskFile != null && mwdFile.isFile() && this.diskFile.getAbsoluteFile().equals(mwdFile.getAbsoluteFile());
+    }
+
+    /**
+     * Saves the files which have changed to the MWD file on disk, without rewriting the rest of it.
+     * Changed files which still fit in the sectors they used are overwritten in place. Files which no longer fit are moved to the end of the MWD.
+     * Nothing is written until every file has been saved, so if a file fails to save, the MWD file and the file entries are left as they were.
+     * The MWI must be saved to the executable afterward, since it holds the new file positions and sizes.
+     * @param mwdFile The MWD file to update. It must be the file this MWD was last loaded from or saved to.
+     * @return changedFileCount
+     */
+    public int saveIncrementally(File mwdFile) throws IOException {
+        if (!canSaveIncrementally(mwdFile))
+            throw new RuntimeException("Cannot incrementally save to '" + mwdFile.getName() + "', it was not the last MWD file loaded or saved.");
+
+        int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int windowSize = threadCount * 2;
+        ExecutorService executor = newWorkerPool("MWD Save Worker", threadCount);
+
+        List<CompletableFuture<Tuple3<Integer, String, byte[]>>> futures = new ArrayList<>(files.size());
+        Map<GameFile, Integer> fileIndexMap = createFileIndexMap();
+
+        // Each file may use the sectors up until the start of the file after it.
+        int[] fileStarts = files.stream().mapToInt(file -> entryMap.get(file).getArchiveOffset()).sorted().toArray();
+
+        // Every file is saved before anything is written, so if a file fails to save, the MWD on disk is left untouched.
+        long mwdStart = System.currentTimeMillis();
+        List<FileEntry> changedEntries = new ArrayList<>();
+        List<Tuple3<Integer, String, byte[]>> changedResults = new ArrayList<>();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                while (futures.size() < files.size() && futures.size() < i + windowSize)
+                    futures.add(submitSaveTask(executor, futures, fileIndexMap, files.get(futures.size()), true));
+
+                GameFile file = files.get(i);
+                FileEntry entry = entryMap.get(file);
+                if (getSaveCallback() != null)
+                    getSaveCallback().accept(entry, file);
+
+                if (futures.get(i) == null)
+                    continue; // The file was never loaded, so it hasn't changed.
+
+                Tuple3<Integer, String, byte[]> result = waitForSaveTask(futures, i, entry);
+                if (result.getC() == null)
+                    continue; // The file has not changed.
+
+                changedEntries.add(entry);
+                changedResults.add(result);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int changedFiles = changedEntries.size();
+        try (FileChannel channel = FileChannel.open(mwdFile.toPath(), StandardOpenOption.WRITE)) {
+            long oldFileEnd = getSectorAlignedSize(channel.size());
+            long fileEnd = oldFileEnd;
+
+            // Files which have grown too large for their sectors are moved to the end of the MWD.
+            long[] writePositions = new long[changedFiles];
+            long[] sectorEnds = new long[changedFiles];
+            for (int i = 0; i < changedFiles; i++) {
+                FileEntry entry = changedEntries.get(i);
+                int packedSize = changedResults.get(i).getC().length;
+                int nextFileIndex = -Arrays.binarySearch(fileStarts, entry.getArchiveOffset() + 1) - 1; // Offsets are sector-aligned, so this is never found.
+                writePositions[i] = entry.getArchiveOffset();
+                sectorEnds[i] = nextFileIndex < fileStarts.length ? fileStarts[nextFileIndex] : oldFileEnd;
+                if (packedSize > sectorEnds[i] - writePositions[i]) {
+                    writePositions[i] = fileEnd;
+                    sectorEnds[i] = fileEnd = fileEnd + Math.max(Constants.CD_SECTOR_SIZE, getSectorAlignedSize(packedSize));
+                }
+            }
+
+            // Moved files are written first, since they don't overwrite any data the current MWI uses. Files saved in place are written after them.
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < changedFiles; i++) {
+                    boolean moved = (writePositions[i] >= oldFileEnd);
+                    if (moved != (pass == 0))
+                        continue;
+
+                    byte[] transfer = changedResults.get(i).getC();
+                    System.out.println("Saving " + changedEntries.get(i).getDisplayName() + " to the MWD at 0x" + Long.toHexString(writePositions[i]).toUpperCase() + ".");
+                    writeFully(channel, ByteBuffer.wrap(transfer), writePositions[i]);
+                    writeFully(channel, ByteBuffer.allocate((int) (sectorEnds[i] - writePositions[i] - transfer.length)), writePositions[i] + transfer.length); // Clear the rest of the sectors.
+                }
+            }
+
+            // The file entries are only updated once every file has been written, so they keep matching the MWD on disk until then.
+            for (int i = 0; i < changedFiles; i++) {
+                FileEntry entry = changedEntries.get(i);
+                Tuple3<Integer, String, byte[]> result = changedResults.get(i);
+                entry.setSectorOffset((int) (writePositions[i] / Constants.CD_SECTOR_SIZE));
+                entry.setUnpackedSize(result.getA());
+                entry.setPackedSize(result.getC().length);
+                entry.setSavedDataHash(result.getB());
+            }
+        }
+
+        System.out.println("MWD Updated. " + changedFiles + " file(s) changed. Total Time: " + (System.currentTimeMillis() - mwdStart) + "ms.");
+        return changedFiles;
+    }
+
+    private static long getSectorAlignedSize(long size) {
+        return ((size + Constants.CD_SECTOR_SIZE - 1) / Constants.CD_SECTOR_SIZE) * Constants.CD_SECTOR_SIZE;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        long writePosition = position;
+        while (data.hasRemaining())
+            writePosition += channel.write(data, writePosition);
+    }
+
+    private Map<GameFile, Integer> createFileIndexMap() {
+        Map<GameFile, Integer> fileIndexMap = new IdentityHashMap<>();
+        for (int i = 0; i < files.size(); i++)
+            fileIndexMap.put(files.get(i), i);
+        return fileIndexMap;
+    }
+
+    private static ExecutorService newWorkerPool(String threadName, int threadCount) {
+        return Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-            do { // Find the next unused sector, to write the next entry.
-                entry.setSectorOffset(++sectorOffset);
-            } while (writer.getIndex() > entry.getArchiveOffset());
-            writer.jumpTo(entry.getArchiveOffset());
+    // Waits for a file to be saved, and releases it so its data is not kept after it has been written.
+    private static Tuple3<Integer, String, byte[]> waitForSaveTask(List<CompletableFuture<Tuple3<Integer, String, byte[]>>> futures, int index, FileEntry entry) {
+        try {
+            return futures.get(index).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving " + entry.getDisplayName() + ".", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Failed to save " + entry.getDisplayName() + ".", ex.getCause());
+        } finally {
+            futures.set(index, null);
+        }
+    }
+
+    // Saves a file to a byte array on the executor, compressing it if necessary. The result holds the unpacked size, the hash of the unpacked data, and the data to write.
+    // PSX VH files write the size of their VB body, which is only known once the VB has been saved, so they wait for it.
+    // When skipping unchanged files, null is returned for files which were never loaded, and the data to write is null for files which match the MWD on disk.
+    private CompletableFuture<Tuple3<Integer, String, byte[]>> submitSaveTask(ExecutorService executor, List<CompletableFuture<Tuple3<Integer, String, byte[]>>> futures, Map<GameFile, Integer> fileIndexMap, GameFile file, boolean skipUnchanged) {
+        FileEntry entry = entryMap.get(file);
+        DataReader archiveData;
+        synchronized (this.unloadedFiles) {
+            archiveData = this.unloadedFiles.get(file);
+        }
 
-            long start = System.currentTimeMillis();
-            CURRENT_FILE_NAME = entry.getDisplayName();
-            System.out.print("Saving " + entry.getDisplayName() + " to MWD. (" + (files.indexOf(file) + 1) + "/" + files.size() + ") ");
-            if (getSaveCallback() != null)
-                getSaveCallback().accept(entry, file);
+        if (archiveData != null) { // Files which were never loaded can't have changed, so their data is copied from the MWD they were loaded from.
+            if (skipUnchanged)
+                return null;
+            return CompletableFuture.supplyAsync(() -> new Tuple3<>(entry.getUnpackedSize(), null, readArchivedBytes(archiveData)), executor);
+        }
 
-            ArrayReceiver receiver = new ArrayReceiver();
+        Supplier<Tuple3<Integer, String, byte[]>> task = () -> {
+            CURRENT_FILE_NAME.set(entry.getDisplayName());
+            ArrayReceiver receiver = new ArrayReceiver(entry.getUnpackedSize()); // The previous size is a good estimate, avoiding most array growth.
             file.save(new DataWriter(receiver));
 
             byte[] transfer = receiver.toArray();
-            entry.setUnpackedSize(transfer.length);
-            if (entry.isCompressed())
-                transfer = PP20Packer.packData(transfer);
+            int unpackedSize = transfer.length;
+            String unpackedDataHash = Utils.calculateSHA1Hash(transfer);
+            if (skipUnchanged && unpackedDataHash.equals(entry.getSavedDataHash()))
+                return new Tuple3<>(unpackedSize, unpackedDataHash, null); // The MWD on disk already holds this data.
+
+            if (entry.isCompressed()) {
+                byte[] packedData = entry.getArchivedData(unpackedDataHash); // Unchanged files are copied through without compressing them again.
+                if (packedData == null) {
+                    packedData = PP20Packer.packData(transfer, getCompressionEffort());
+                    if (getCompressionEffort() == PP20Effort.EXTREME) // Only the best compression is worth reusing, so a final build doesn't keep fast-compressed data.
+                        entry.setArchivedData(unpackedDataHash, packedData);
+                }
 
-            entry.setPackedSize(transfer.length);
+                transfer = packedData;
+            }
 
-            writer.writeBytes(transfer);
-            System.out.println("Time: " + ((System.currentTimeMillis() - start) / 1000) + "s.");
-        }
-        System.out.println("MWD Built. Total Time: " + ((System.currentTimeMillis() - mwdStart) / 1000) + "s.");
+            return new Tuple3<>(unpackedSize, unpackedDataHash, transfer);
+        };
 
-        // Fill the rest of the file with null bytes.
-        GameFile lastFile = files.get(files.size() - 1);
-        writer.writeNull(Constants.CD_SECTOR_SIZE - (entryMap.get(lastFile).getArchiveSize() % Constants.CD_SECTOR_SIZE));
+        GameFile vbFile = (file instanceof PSXVHFile) ? ((PSXVHFile) file).getVB() : null;
+        Integer vbIndex = vbFile != null ? fileIndexMap.get(vbFile) : null;
+        CompletableFuture<Tuple3<Integer, String, byte[]>> vbFuture = (vbIndex != null && vbIndex < futures.size()) ? futures.get(vbIndex) : null;
+        if (vbFuture != null) // If the VB's future has already been released, it has already been saved.
+            return vbFuture.thenApplyAsync(vbResult -> task.get(), executor);
+
+        return CompletableFuture.supplyAsync(task, executor);
     }
 
     /**
@@ -278,7 +726,8 @@ public class MWDFile extends GameObject {
     public <T extends GameFile> List<T> getAllFiles(Class<T> fileClass) {
         List<T> results = new ArrayList<>();
 
-        for (GameFile file : getFiles()) {
+        loadFilesOfType(fileClass); // Other files can't match, so they are left for lazy loading.
+        for (GameFile file : this.files) {
             if (fileClass.isInstance(file))
                 results.add(fileClass.cast(file));
 
@@ -301,7 +750,8 @@ public class MWDFile extends GameObject {
      * @param handler   The behavior to apply.
      */
     public <T extends GameFile> void forEachFile(Class<T> fileClass, Consumer<T> handler) {
-        for (GameFile file : getFiles()) {
+        loadFilesOfType(fileClass); // Other files can't match, so they are left for lazy loading.
+        for (GameFile file : this.files) {
             if (fileClass.isInstance(file))
                 handler.accept(fileClass.cast(file));
 
@@ -322,7 +772,8 @@ public class MWDFile extends GameObject {
      * @param handler   The behavior to apply.
      */
     public <T extends GameFile, R> R resolveForEachFile(Class<T> fileClass, Function<T, R> handler) {
-        for (GameFile file : getFiles()) {
+        loadFilesOfType(fileClass); // Other files can't match, so they are left for lazy loading.
+        for (GameFile file : this.files) {
             if (fileClass.isInstance(file)) {
                 R result = handler.apply(fileClass.cast(file));
                 if (result != null)
@@ -353,10 +804,27 @@ public class MWDFile extends GameObject {
         if (textureId < 0)
             textureId = 0; // This is a hack to allow for loading maps without remaps on build 20. In new FrogLord, this should be null / return blank texture.
 
-        for (VLOArchive vlo : getAllFiles(VLOArchive.class))
-            for (GameImage testImage : vlo.getImages())
-                if (testImage.getTextureId() == textureId)
-                    return testImage;
+        GameImage[][] textureIdIndex = getTextureIdIndex();
+        return textureId < textureIdIndex.length && textureIdIndex[textureId] != null ? textureIdIndex[textureId][0] : null;
+    }
+
+    /**
+     * Gets an image by the given texture ID, without loading every VLO.
+     * Only the VLOs stored directly in the MWD are searched, and they are loaded one at a time until the image is found. VLOs in WADs are not searched.
+     * This is meant for the few images needed before any file is opened, such as the level icons in the file list.
+     * @param textureId The texture ID to get.
+     * @return gameImage, or null if no VLO outside of a WAD has it.
+     */
+    public GameImage getLooseImageByTextureId(int textureId) {
+        for (GameFile file : this.files) {
+            if (!(file instanceof VLOArchive))
+                continue;
+
+            ensureLoaded(file);
+            for (GameImage image : ((VLOArchive) file).getImages())
+                if (image.getTextureId() == textureId)
+                    return image;
+        }
 
         return null;
     }
@@ -367,14 +835,66 @@ public class MWDFile extends GameObject {
      * @return gameImage
      */
     public List<GameImage> getImagesByTextureId(int textureId) {
-        List<GameImage> results = new ArrayList<>();
+        GameImage[][] textureIdIndex = getTextureIdIndex();
+        if (textureId < 0 || textureId >= textureIdIndex.length || textureIdIndex[textureId] == null)
+            return new ArrayList<>();
 
-        for (VLOArchive vlo : getAllFiles(VLOArchive.class))
-            for (GameImage testImage : vlo.getImages())
-                if (testImage.getTextureId() == textureId)
-                    results.add(testImage);
+        return new ArrayList<>(Arrays.asList(textureIdIndex[textureId]));
+    }
 
-        return results;
+    /**
+     * Invalidates the index of images by texture id, so it will be rebuilt the next time an image is looked up.
+     * This must be called when images are added or removed, or when a file holding images is replaced.
+     */
+    public void invalidateTextureIdIndex() {
+        synchronized (this.textureIdIndexLock) {
+            this.textureIdIndex = null;
+            this.textureIdIndexVersion++;
+        }
+    }
+
+    // Gets the images of every VLO, indexed by texture id. Images with the same id are in the order getAllFiles finds them, so the first one is what a search would find.
+    private GameImage[][] getTextureIdIndex() {
+        GameImage[][] textureIdIndex = this.textureIdIndex;
+        if (textureIdIndex != null)
+            return textureIdIndex;
+
+        int version;
+        synchronized (this.textureIdIndexLock) {
+            version = this.textureIdIndexVersion;
+        }
+
+        // The index is built without holding the lock, since getting the VLOs may load files, which can look up images on other threads.
+        List<List<GameImage>> imagesById = new ArrayList<>();
+        for (VLOArchive vlo : getAllFiles(VLOArchive.class)) {
+            for (GameImage image : vlo.getImages()) {
+                int textureId = image.getTextureId();
+                if (textureId < 0)
+                    continue; // Negative ids are never looked up.
+
+                while (imagesById.size() <= textureId)
+                    imagesById.add(null);
+
+                List<GameImage> images = imagesById.get(textureId);
+                if (images == null)
+                    imagesById.set(textureId, images = new ArrayList<>(1));
+                images.add(image);
+            }
+        }
+
+        textureIdIndex = new GameImage[imagesById.size()][];
+        for (int i = 0; i < textureIdIndex.length; i++) {
+            List<GameImage> images = imagesById.get(i);
+            if (images != null)
+                textureIdIndex[i] = images.toArray(new GameImage[0]);
+        }
+
+        synchronized (this.textureIdIndexLock) {
+            if (version == this.textureIdIndexVersion) // Don't keep the index if it was invalidated while it was built.
+                this.textureIdIndex = textureIdIndex;
+        }
+
+        return textureIdIndex;
     }
 
     /**
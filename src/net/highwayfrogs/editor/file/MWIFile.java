@@ -1,5 +1,6 @@
 package net.highwayfrogs.editor.file;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.Constants;
@@ -10,6 +11,7 @@ import net.highwayfrogs.editor.file.map.MAPFile;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.vlo.VLOArchive;
 import net.highwayfrogs.editor.file.writer.DataWriter;
+import net.highwayfrogs.editor.utils.Utils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -120,6 +122,9 @@ public class MWIFile extends GameObject {
         private String sha1Hash;
         private transient int resourceId;
         private transient FroggerEXEInfo config;
+        @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private transient String archivedDataHash; // The SHA1 hash of the unpacked data which archivedData holds.
+        @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private transient byte[] archivedData; // The compressed data last read from or written to the MWD.
+        private transient String savedDataHash; // The SHA1 hash of the unpacked data which is currently stored in the MWD file on disk.
 
         public static final int FLAG_SINGLE_ACCESS = Constants.BIT_FLAG_0; // I assume this is for files loaded individually, by themselves.
         public static final int FLAG_GROUP_ACCESS = Constants.BIT_FLAG_1; // Cannot be loaded individually / by itself. Presumably this is for files in child-WADs.
@@ -186,6 +191,36 @@ public class MWIFile extends GameObject {
                 this.unpackedSize |= (3 << 24);
         }
 
+        /**
+         * Remember the compressed data this entry was last read from or written to the MWD with.
+         * If the file saves to the same data later, the compressed data can be reused instead of compressing it again.
+         * @param unpackedData The array holding the unpacked file data, starting at index 0.
+         * @param unpackedSize The size of the unpacked file data.
+         * @param packedData   The compressed file data.
+         */
+        public void setArchivedData(byte[] unpackedData, int unpackedSize, byte[] packedData) {
+            setArchivedData(Utils.calculateSHA1Hash(unpackedData, 0, unpackedSize), packedData);
+        }
+
+        /**
+         * Remember the compressed data this entry was last read from or written to the MWD with.
+         * @param unpackedDataHash The SHA1 hash of the unpacked file data.
+         * @param packedData       The compressed file data.
+         */
+        public void setArchivedData(String unpackedDataHash, byte[] packedData) {
+            this.archivedDataHash = unpackedDataHash;
+            this.archivedData = packedData;
+        }
+
+        /**
+         * Gets the compressed data to write to the MWD, if the file data has not changed since it was last compressed.
+         * @param unpackedDataHash The SHA1 hash of the newly saved file data.
+         * @return packedData, or null if the data has changed.
+         */
+        public byte[] getArchivedData(String unpackedDataHash) {
+            return this.archivedDataHash != null && this.archivedDataHash.equals(unpackedDataHash) ? this.archivedData : null;
+        }
+
         /**
          * Does this MWI entry have an associated file path?
          * @return hasFilePath
@@ -116,7 +116,7 @@ public class PALFile extends GameFile {
 
         graphics.dispose();
 
-        return Utils.toFXImage(image, false);
+        return Utils.toFXImage(image);
     }
 
     /**
@@ -12,6 +12,7 @@ import net.highwayfrogs.editor.file.map.MAPTheme;
 import net.highwayfrogs.editor.file.mof.MOFFile;
 import net.highwayfrogs.editor.file.mof.MOFHolder;
 import net.highwayfrogs.editor.file.packers.PP20Packer;
+import net.highwayfrogs.editor.file.packers.PP20Packer.PP20Effort;
 import net.highwayfrogs.editor.file.packers.PP20Unpacker;
 import net.highwayfrogs.editor.file.reader.ArraySource;
 import net.highwayfrogs.editor.file.reader.DataReader;
@@ -20,12 +21,12 @@ import net.highwayfrogs.editor.file.writer.ArrayReceiver;
 import net.highwayfrogs.editor.file.writer.DataWriter;
 import net.highwayfrogs.editor.gui.GUIMain;
 import net.highwayfrogs.editor.gui.editor.WADController;
-import net.highwayfrogs.editor.utils.FroggerVersionComparison;
 import net.highwayfrogs.editor.utils.Utils;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * Represents a WAD file.
@@ -37,7 +38,7 @@ public class WADFile extends GameFile {
     private MAPTheme theme;
 
     private static final Image ICON = loadIcon("packed");
-    public static String CURRENT_FILE_NAME = null;
+    public static final ThreadLocal<String> CURRENT_FILE_NAME = new ThreadLocal<>(); // Per-thread, since WADs are loaded and saved by the MWD worker threads.
     public static final int TYPE_ID = -1;
     private static final int TERMINATOR = -1;
 
@@ -49,6 +50,7 @@ public class WADFile extends GameFile {
         MWIFile mwiTable = getConfig().getMWI();
 
         MOFHolder lastCompleteMOF = null;
+        byte[] unpackBuffer = new byte[0]; // Reused for each compressed file, since files do not keep the data they are loaded from.
         while (true) {
             int resourceId = reader.readInt();
             if (resourceId == TERMINATOR)
@@ -60,17 +62,24 @@ public class WADFile extends GameFile {
 
             FileEntry wadFileEntry = getConfig().getResourceEntry(resourceId);
             String fileName = wadFileEntry.getDisplayName();
-            CURRENT_FILE_NAME = fileName;
-
-            // Decompress if compressed.
-            byte[] data = reader.readBytes(size);
-            boolean compressed = PP20Unpacker.isCompressed(data);
-            if (compressed)
-                data = PP20Unpacker.unpackData(data);
-
-            // Calculate the SHA1 hash.
-            if (FroggerVersionComparison.isEnabled() && wadFileEntry.getSha1Hash() == null)
-                wadFileEntry.setSha1Hash(Utils.calculateSHA1Hash(data));
+            CURRENT_FILE_NAME.set(fileName);
+
+            // Decompress if compressed, otherwise read the file in-place without copying it.
+            boolean compressed = PP20Unpacker.isCompressed(reader, size);
+            DataReader fileReader;
+            if (compressed) {
+                byte[] packedData = reader.readBytes(size);
+                int unpackedSize = PP20Unpacker.getUnpackedSize(packedData);
+                if (unpackedSize > unpackBuffer.length)
+                    unpackBuffer = new byte[unpackedSize];
+
+                PP20Unpacker.unpackData(packedData, unpackBuffer, 0);
+                wadFileEntry.setArchivedData(unpackBuffer, unpackedSize, packedData); // If the file is saved without changes, this data will be reused instead of compressing it again.
+                fileReader = new DataReader(new ArraySource(unpackBuffer, 0, unpackedSize));
+            } else {
+                fileReader = reader.slice(reader.getIndex(), size);
+                reader.skipBytes(size);
+            }
 
             GameFile file;
             if (Constants.ENABLE_WAD_FORMATS) {
@@ -99,8 +108,8 @@ public class WADFile extends GameFile {
                 } else if (fileType == DemoFile.TYPE_ID) {
                     file = new DemoFile();
                 } else {
-                    file = new DummyFile(data.length);
-                    System.out.println("File '" + CURRENT_FILE_NAME + "' was of an unknown file type. (" + fileType + ")");
+                    file = new DummyFile(fileReader.getSize());
+                    System.out.println("File '" + CURRENT_FILE_NAME.get() + "' was of an unknown file type. (" + fileType + ")");
                 }
             }
 
@@ -109,7 +118,7 @@ public class WADFile extends GameFile {
                 newEntry.setFile(file);
                 files.add(newEntry);
 
-                file.load(new DataReader(new ArraySource(data)));
+                file.load(fileReader);
 
                 if (file instanceof MOFHolder) {
                     MOFHolder newHolder = (MOFHolder) file;
@@ -117,12 +126,35 @@ public class WADFile extends GameFile {
                         lastCompleteMOF = newHolder;
                 }
             } catch (Exception ex) {
-                System.out.println("Failed to load " + CURRENT_FILE_NAME + ".");
+                System.out.println("Failed to load " + CURRENT_FILE_NAME.get() + ".");
                 ex.printStackTrace();
             }
         }
 
-        CURRENT_FILE_NAME = null;
+        CURRENT_FILE_NAME.remove();
+    }
+
+    /**
+     * Reads the data of each file in a WAD without loading the files. Compressed files are unpacked.
+     * @param reader  The reader to read the WAD from.
+     * @param handler Called with the resource id and the unpacked data of each file.
+     */
+    public static void readFileData(DataReader reader, BiConsumer<Integer, byte[]> handler) {
+        while (true) {
+            int resourceId = reader.readInt();
+            if (resourceId == TERMINATOR)
+                break; // There are no more files.
+
+            reader.skipInt(); // File type.
+            int size = reader.readInt();
+            reader.skipInt(); // Padding.
+
+            byte[] fileData = reader.readBytes(size);
+            if (PP20Unpacker.isCompressed(fileData))
+                fileData = PP20Unpacker.unpackData(fileData);
+
+            handler.accept(resourceId, fileData);
+        }
     }
 
     @Override
@@ -131,19 +163,30 @@ public class WADFile extends GameFile {
             writer.writeInt(entry.getResourceId());
             writer.writeInt(entry.getFileType());
 
-            CURRENT_FILE_NAME = entry.getFileEntry().getDisplayName();
+            CURRENT_FILE_NAME.set(entry.getFileEntry().getDisplayName());
             ArrayReceiver receiver = new ArrayReceiver();
             entry.getFile().save(new DataWriter(receiver));
 
             byte[] fileBytes = receiver.toArray();
-            if (entry.isCompressed())
-                fileBytes = PP20Packer.packData(fileBytes);
+            if (entry.isCompressed()) {
+                FileEntry fileEntry = entry.getFileEntry();
+                String unpackedDataHash = Utils.calculateSHA1Hash(fileBytes); // Hashed once, for both looking up and storing the packed data.
+                byte[] packedData = fileEntry.getArchivedData(unpackedDataHash); // Unchanged files are copied through without compressing them again.
+                if (packedData == null) {
+                    PP20Effort effort = getMWD().getCompressionEffort();
+                    packedData = PP20Packer.packData(fileBytes, effort);
+                    if (effort == PP20Effort.EXTREME) // Only the best compression is worth reusing, so a final build doesn't keep fast-compressed data.
+                        fileEntry.setArchivedData(unpackedDataHash, packedData);
+                }
+
+                fileBytes = packedData;
+            }
 
             writer.writeInt(fileBytes.length); // File length.
             writer.writeNull(Constants.INTEGER_SIZE); // Padding
             writer.writeBytes(fileBytes); // Write file contents.
         }
-        CURRENT_FILE_NAME = null;
+        CURRENT_FILE_NAME.remove();
 
         writer.writeInt(TERMINATOR);
         writer.writeNull(Constants.INTEGER_SIZE * 3);
@@ -66,7 +66,7 @@ public class FroggerEXEInfo extends Config {
     private final String internalName;
     private boolean hasConfigIdentifier;
     private final Map<MAPLevel, Image> levelImageMap = new HashMap<>();
-    private final Map<MAPTheme, FormEntry[]> allowedForms = new HashMap<>();
+    private final Map<MAPTheme, FormEntry[]> allowedForms = Collections.synchronizedMap(new HashMap<>()); // Maps may be loaded on multiple threads at once.
     private final List<Short> islandRemap = new ArrayList<>();
 
 
@@ -751,9 +751,8 @@ public class FroggerEXEInfo extends Config {
      * @param resourceId The file's resource id.
      * @return gameFile
      */
-    @SuppressWarnings("unchecked")
     public <T extends GameFile> T getGameFile(int resourceId) {
-        return (T) getMWD().getEntryFileMap().get(getResourceEntry(resourceId));
+        return getMWD().getGameFile(getResourceEntry(resourceId));
     }
 
     /**
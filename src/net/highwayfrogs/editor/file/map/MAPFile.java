@@ -35,6 +35,7 @@ import net.highwayfrogs.editor.file.map.poly.polygon.MAPPolygonType;
 import net.highwayfrogs.editor.file.map.zone.Zone;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.standard.SVector;
+import net.highwayfrogs.editor.file.vlo.GameImage;
 import net.highwayfrogs.editor.file.vlo.ImageFilterSettings;
 import net.highwayfrogs.editor.file.vlo.ImageFilterSettings.ImageState;
 import net.highwayfrogs.editor.file.vlo.VLOArchive;
@@ -432,7 +433,7 @@ public class MAPFile extends GameFile {
                         primitives.add(primitive);
                     }
                 } catch (Throwable th) {
-                    throw new RuntimeException("Failed to load " + primitives.size() + " " + type + " primitives in " + MWDFile.CURRENT_FILE_NAME + ".", th);
+                    throw new RuntimeException("Failed to load " + primitives.size() + " " + type + " primitives in " + MWDFile.CURRENT_FILE_NAME.get() + ".", th);
                 }
 
                 reader.jumpReturn();
@@ -447,8 +448,7 @@ public class MAPFile extends GameFile {
         reader.verifyString(VERTEX_SIGNATURE);
         short vertexCount = reader.readShort();
         reader.skipShort(); // Padding.
-        for (int i = 0; i < vertexCount; i++)
-            this.vertexes.add(SVector.readWithPadding(reader));
+        SVector.readWithPadding(reader, vertexCount, this.vertexes);
 
         // Read GRID data.
         reader.setIndex(gridAddress);
@@ -463,9 +463,10 @@ public class MAPFile extends GameFile {
         Utils.verify(loadedBasePoint.getY() == 0, "Base-Point Y is not zero!");
 
         int stackCount = gridXCount * gridZCount;
+        int[] stackData = reader.readInts(new int[stackCount]);
         for (int i = 0; i < stackCount; i++) {
             GridStack stack = new GridStack();
-            stack.load(reader);
+            stack.load(stackData[i]);
             getGridStacks().add(stack);
         }
 
@@ -474,10 +475,11 @@ public class MAPFile extends GameFile {
         for (GridStack stack : gridStacks)
             squareCount = Math.max(squareCount, stack.getTempIndex() + stack.getLoadedSquareCount());
 
-        List<GridSquare> loadedGridSquares = new ArrayList<>();
+        int[] squareData = reader.readInts(new int[squareCount * 2]);
+        List<GridSquare> loadedGridSquares = new ArrayList<>(squareCount);
         for (int i = 0; i < squareCount; i++) {
             GridSquare square = new GridSquare(this);
-            square.load(reader);
+            square.load(squareData[i * 2], squareData[(i * 2) + 1]);
             loadedGridSquares.add(square);
         }
 
@@ -735,7 +737,7 @@ public class MAPFile extends GameFile {
         short vertexCount = (short) this.vertexes.size();
         writer.writeShort(vertexCount);
         writer.writeShort((short) 0); // Padding.
-        getVertexes().forEach(vertex -> vertex.saveWithPadding(writer));
+        SVector.saveWithPadding(writer, getVertexes());
 
         // Save GRID data.
         tempAddress = writer.getIndex();
@@ -789,9 +791,12 @@ public class MAPFile extends GameFile {
                     return null;
 
                 LevelInfo info = getConfig().getLevelInfoMap().get(key);
-                if (info != null)
-                    return Utils.toFXImage(Utils.resizeImage(getConfig().getImageFromPointer(info.getLevelTexturePointer()).toBufferedImage(), 35, 35), false);
-                return null;
+                if (info == null)
+                    return null;
+
+                // The file list shows this before any file is opened, so VLOs outside of WADs are searched until the icon is found, instead of loading every VLO and WAD.
+                GameImage levelImage = getMWD().getLooseImageByTextureId(getConfig().getTextureIdFromPointer(info.getLevelTexturePointer()));
+                return levelImage != null ? Utils.toFXImage(Utils.resizeImage(levelImage.toBufferedImage(), 35, 35)) : null;
             });
         }
 
@@ -82,7 +82,7 @@ public class Entity extends GameObject {
 
         if (this.formEntry == null && this.oldFormEntry == null) {
             this.entityData = new MatrixData();
-            System.out.println("Failed to find form for entity " + this.uniqueId + "/Form: " + formId + "/" + this.formGridId + " in " + MWDFile.CURRENT_FILE_NAME + ".");
+            System.out.println("Failed to find form for entity " + this.uniqueId + "/Form: " + formId + "/" + this.formGridId + " in " + MWDFile.CURRENT_FILE_NAME.get() + ".");
             return; // Can't read more data. Ideally this doesn't happen, but this is a good failsafe. It's most likely to happen in early builds, and it does happen in Build 01.
         }
 
@@ -95,7 +95,7 @@ public class Entity extends GameObject {
             if (this.scriptData != null)
                 scriptData.load(reader);
         } catch (Throwable th) {
-            System.out.println("Failed to load entity data for entity " + this.uniqueId + "/" + this.formEntry.getFormName() + " in " + MWDFile.CURRENT_FILE_NAME + ".");
+            System.out.println("Failed to load entity data for entity " + this.uniqueId + "/" + this.formEntry.getFormName() + " in " + MWDFile.CURRENT_FILE_NAME.get() + ".");
             th.printStackTrace();
         }
 
@@ -249,7 +249,7 @@ public class Form extends GameObject {
         }
 
         graphics.dispose();
-        return Utils.toFXImage(newImage, false);
+        return Utils.toFXImage(newImage);
     }
 
     /**
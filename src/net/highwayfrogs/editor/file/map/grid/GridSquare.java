@@ -36,8 +36,17 @@ public class GridSquare extends GameObject {
 
     @Override
     public void load(DataReader reader) {
-        this.flags = reader.readInt();
-        int polyF4Pointer = reader.readInt();
+        int flags = reader.readInt();
+        load(flags, reader.readInt());
+    }
+
+    /**
+     * Load the square from its already read values.
+     * @param flags         The grid square flags.
+     * @param polyF4Pointer The pointer to the polygon this square uses.
+     */
+    public void load(int flags, int polyF4Pointer) {
+        this.flags = flags;
 
         PSXGPUPrimitive prim = parent.getLoadPointerPolygonMap().get(polyF4Pointer);
         if (polyF4Pointer != 0) {
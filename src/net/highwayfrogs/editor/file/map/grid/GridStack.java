@@ -27,9 +27,17 @@ public class GridStack extends GameObject {
 
     @Override
     public void load(DataReader reader) {
-        this.loadedSquareCount = reader.readUnsignedByteAsShort();
-        this.averageHeight = reader.readUnsignedByteAsShort();
-        this.tempIndex = reader.readUnsignedShortAsInt();
+        load(reader.readInt());
+    }
+
+    /**
+     * Load the stack from the 32-bit value it is stored as.
+     * @param value The stack value.
+     */
+    public void load(int value) {
+        this.loadedSquareCount = value & 0xFF;
+        this.averageHeight = (short) ((value >> 8) & 0xFF);
+        this.tempIndex = (value >>> 16);
     }
 
     @Override
@@ -112,7 +112,7 @@ public class MAPGroup extends GameObject {
                 int primIndex = from.indexOf(mapPrimitive);
 
                 if (primIndex == -1) {
-                    System.out.println("Failed to setup MAP_GROUP in " + MWDFile.CURRENT_FILE_NAME + " for polygon: " + type + ", " + count + ", " + polyPtr + ", " + mapPrimitive);
+                    System.out.println("Failed to setup MAP_GROUP in " + MWDFile.CURRENT_FILE_NAME.get() + " for polygon: " + type + ", " + count + ", " + polyPtr + ", " + mapPrimitive);
                     continue;
                 }
 
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.file.map.MAPFile;
 import net.highwayfrogs.editor.file.map.view.TextureMap;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.standard.psx.PSXColorVector;
 import net.highwayfrogs.editor.file.vlo.GameImage;
@@ -13,7 +14,6 @@ import net.highwayfrogs.editor.gui.editor.MapUIController;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 
 /**
  * Flat shaded polygon.
@@ -64,8 +64,8 @@ public class MAPPolyFlat extends MAPPolygon {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
-        return makeIdentifier(0xF1A7C010, this.color.toRGB());
+    public TextureKey makeIdentifier(TextureMap map) {
+        return TextureKey.of(TextureKey.KIND_FLAT_COLOR, this.color.toRGB());
     }
 
     @Override
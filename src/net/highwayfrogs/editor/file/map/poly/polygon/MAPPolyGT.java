@@ -5,12 +5,12 @@ import net.highwayfrogs.editor.file.map.view.FrogMesh;
 import net.highwayfrogs.editor.file.map.view.MapMesh;
 import net.highwayfrogs.editor.file.map.view.TextureMap;
 import net.highwayfrogs.editor.file.map.view.TextureMap.ShaderMode;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.standard.psx.PSXColorVector;
 import net.highwayfrogs.editor.file.vlo.GameImage;
 import net.highwayfrogs.editor.utils.Utils;
 
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 
 /**
  * Represents gouraud textured polys.
@@ -41,16 +41,11 @@ public class MAPPolyGT extends MAPPolyTexture {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
+    public TextureKey makeIdentifier(TextureMap map) {
         if (map.getMode() == ShaderMode.NO_SHADING) {
-            return makeIdentifier(0x7E8BA5E, getTextureId());
+            return TextureKey.of(TextureKey.KIND_TEXTURE, getTextureId());
         } else {
-            int[] colors = new int[getColors().length + 2];
-            colors[0] = 0xF0A54ADE;
-            colors[1] = getTextureId();
-            for (int i = 0; i < getColors().length; i++)
-                colors[i + 2] = getColors()[i].toRGB();
-            return makeIdentifier(colors);
+            return TextureKey.of(TextureKey.KIND_GOURAUD_TEXTURE, getTextureId(), getColors());
         }
     }
 
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.file.map.MAPFile;
 import net.highwayfrogs.editor.file.map.view.TextureMap;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.standard.psx.PSXColorVector;
 import net.highwayfrogs.editor.file.vlo.GameImage;
@@ -14,7 +15,6 @@ import net.highwayfrogs.editor.gui.editor.MapUIController;
 import net.highwayfrogs.editor.utils.Utils;
 
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 
 /**
  * Represents polygons with gouraud shading.
@@ -75,12 +75,8 @@ public class MAPPolyGouraud extends MAPPolygon {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
-        int[] colors = new int[getColors().length + 1];
-        colors[0] = 0xF0ADFACE;
-        for (int i = 0; i < getColors().length; i++)
-            colors[i] = getColors()[i].toRGB();
-        return makeIdentifier(colors);
+    public TextureKey makeIdentifier(TextureMap map) {
+        return TextureKey.of(TextureKey.KIND_GOURAUD, (short) 0, getColors());
     }
 
     @Override
@@ -167,7 +167,7 @@ public abstract class MAPPolyTexture extends MAPPolygon implements TexturedPoly
         VLOArchive suppliedVLO = controller.getMap().getVlo();
 
         // Texture Preview. (Click -> change.)
-        ImageView view = editor.addCenteredImage(Utils.toFXImage(makePreviewImage(controller), false), 150);
+        ImageView view = editor.addCenteredImage(Utils.toFXImage(makePreviewImage(controller)), 150);
         view.setOnMouseClicked(evt -> suppliedVLO.promptImageSelection(newImage -> {
             short newValue = newImage.getTextureId();
             if (texMap.getRemapList() != null)
@@ -179,7 +179,7 @@ public abstract class MAPPolyTexture extends MAPPolygon implements TexturedPoly
             }
 
             setTextureId(newValue);
-            view.setImage(Utils.toFXImage(makePreviewImage(controller), false));
+            view.setImage(Utils.toFXImage(makePreviewImage(controller)));
         }, false));
 
         // Flags.
@@ -188,7 +188,7 @@ public abstract class MAPPolyTexture extends MAPPolygon implements TexturedPoly
 
         // UVs
         for (int i = 0; i < this.uvs.length; i++)
-            this.uvs[i].setupEditor("UV #" + i, editor, () -> view.setImage(Utils.toFXImage(makePreviewImage(controller), false)));
+            this.uvs[i].setupEditor("UV #" + i, editor, () -> view.setImage(Utils.toFXImage(makePreviewImage(controller))));
 
         // Colors
         editor.addBoldLabel("Colors:");
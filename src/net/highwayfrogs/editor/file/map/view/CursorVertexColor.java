@@ -2,12 +2,12 @@ package net.highwayfrogs.editor.file.map.view;
 
 import lombok.Getter;
 import net.highwayfrogs.editor.file.map.MAPFile;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.map.view.TextureMap.TextureSource;
 import net.highwayfrogs.editor.file.vlo.GameImage;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 
 /**
  * The texture for the cursor.
@@ -44,8 +44,8 @@ public class CursorVertexColor implements TextureSource {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
-        return makeIdentifier(0x0BE1A7, this.bodyColor.getRGB(), this.outlineColor.getRGB());
+    public TextureKey makeIdentifier(TextureMap map) {
+        return TextureKey.of(TextureKey.KIND_CURSOR, this.bodyColor.getRGB(), this.outlineColor.getRGB());
     }
 
     @Override
@@ -1,6 +1,8 @@
 package net.highwayfrogs.editor.file.map.view;
 
-import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.PhongMaterial;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -15,6 +17,7 @@ import net.highwayfrogs.editor.file.mof.poly_anim.MOFPartPolyAnimEntry;
 import net.highwayfrogs.editor.file.mof.poly_anim.MOFPartPolyAnimEntryList;
 import net.highwayfrogs.editor.file.mof.prims.MOFPolyTexture;
 import net.highwayfrogs.editor.file.mof.prims.MOFPolygon;
+import net.highwayfrogs.editor.file.standard.psx.PSXColorVector;
 import net.highwayfrogs.editor.file.vlo.GameImage;
 import net.highwayfrogs.editor.file.vlo.ImageFilterSettings;
 import net.highwayfrogs.editor.file.vlo.ImageFilterSettings.ImageState;
@@ -24,9 +27,9 @@ import net.highwayfrogs.editor.utils.Utils;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 import java.util.List;
 import java.util.*;
+import java.util.Map.Entry;
 
 /**
  * Represents a texture map.
@@ -46,9 +49,10 @@ public class TextureMap {
     private final VLOArchive vloArchive;
     private final List<Short> remapList;
     private PhongMaterial material;
+    private WritableImage fxImage;
     private final TextureTree textureTree;
     @Setter private ShaderMode mode;
-    private final Map<Short, Set<BigInteger>> mapTextureList = new HashMap<>();
+    private final Map<Short, Set<TextureKey>> mapTextureList = new HashMap<>();
     private final ImageFilterSettings displaySettings = new ImageFilterSettings(ImageState.EXPORT).setAllowTransparency(true); // This is not static because we want it to be gc'd when the TextureMap is.
     private int width;
     private int height;
@@ -112,22 +116,38 @@ public class TextureMap {
      */
     public PhongMaterial getDiffuseMaterial() {
         if (this.material == null)
-            this.material = Utils.makeDiffuseMaterial(Utils.toFXImage(getTextureTree().getImage(), false));
+            this.material = Utils.makeDiffuseMaterial(updateFXImage());
         return this.material;
     }
 
     /**
      * Updates the color data for the tree.
+     * Only the textures which changed are added or removed, unless the tree has to be rebuilt.
      * @param sourceMap The map in question to update the tree with.
      */
-    public void updateTree(Map<BigInteger, TextureSource> sourceMap) {
-        this.textureTree.rebuildTree(sourceMap);
+    public void updateTree(Map<TextureKey, TextureSource> sourceMap) {
+        if (!this.textureTree.updateTree(sourceMap))
+            this.textureTree.rebuildTree(sourceMap);
         if (this.material == null)
             this.material = getDiffuseMaterial();
 
-        Image image = Utils.toFXImage(getTextureTree().getImage(), false);
-        this.material.setDiffuseMap(image);
-        this.material.setSpecularMap(image); // Fixes polygon lighting.
+        WritableImage image = updateFXImage();
+        if (this.material.getDiffuseMap() != image) { // Changes to the pixels of the image the material already has are seen by the material.
+            this.material.setDiffuseMap(image);
+            this.material.setSpecularMap(image); // Fixes polygon lighting.
+        }
+    }
+
+    // Copies the areas of the texture tree image which changed into the FX image, instead of converting the whole image.
+    private WritableImage updateFXImage() {
+        BufferedImage image = this.textureTree.getImage();
+        if (this.fxImage == null || this.fxImage.getWidth() != image.getWidth() || this.fxImage.getHeight() != image.getHeight()) {
+            this.fxImage = new WritableImage(image.getWidth(), image.getHeight());
+            this.textureTree.markNodesDirty(); // The new image starts empty, so only the textures need to be written.
+        }
+
+        this.textureTree.writeDirtyAreas(this.fxImage);
+        return this.fxImage;
     }
 
     /**
@@ -152,7 +172,7 @@ public class TextureMap {
 
         boolean oldModelTextureState = this.useModelTextureAnimation;
         this.useModelTextureAnimation = false; // Makes sure animated textures are properly applied.
-        Map<BigInteger, TextureSource> sourceMap = createSourceMap(mof);
+        Map<TextureKey, TextureSource> sourceMap = createSourceMap(mof);
 
         // Dynamic resizing to keep it small.
         int totalArea = 0;
@@ -181,7 +201,7 @@ public class TextureMap {
     /**
      * Creates a texture source map for a map.
      */
-    private Map<BigInteger, TextureSource> createSourceMap(MAPFile map) {
+    private Map<TextureKey, TextureSource> createSourceMap(MAPFile map) {
         // Calculate how many of each are used.
         this.mapTextureList.clear();
         for (MAPPolygon poly : map.getAllPolygons()) {
@@ -192,10 +212,10 @@ public class TextureMap {
         }
 
         // Calculate the polygon data.
-        Map<BigInteger, TextureSource> texMap = new HashMap<>();
+        Map<TextureKey, TextureSource> texMap = new HashMap<>();
         Set<Short> visitedTextures = new HashSet<>();
         for (MAPPolygon poly : map.getAllPolygons()) {
-            BigInteger id = poly.makeIdentifier(this);
+            TextureKey id = poly.makeIdentifier(this);
             if (!texMap.containsKey(id))
                 texMap.put(id, poly);
 
@@ -223,12 +243,12 @@ public class TextureMap {
     /**
      * Creates a texture source map for the model.
      */
-    private Map<BigInteger, TextureSource> createSourceMap(MOFHolder mof) {
-        Map<BigInteger, TextureSource> texMap = new HashMap<>();
+    private Map<TextureKey, TextureSource> createSourceMap(MOFHolder mof) {
+        Map<TextureKey, TextureSource> texMap = new HashMap<>();
 
         Set<Short> visitedTextures = new HashSet<>();
         for (MOFPolygon poly : mof.asStaticFile().getAllPolygons()) {
-            BigInteger id = poly.makeIdentifier(this);
+            TextureKey id = poly.makeIdentifier(this);
             if (!texMap.containsKey(id))
                 texMap.put(id, poly);
 
@@ -255,7 +275,7 @@ public class TextureMap {
                         if (image == null)
                             continue;
 
-                        BigInteger id = image.makeIdentifier(this);
+                        TextureKey id = image.makeIdentifier(this);
                         if (!texMap.containsKey(id))
                             texMap.put(id, image);
                     }
@@ -281,11 +301,21 @@ public class TextureMap {
     @Getter
     public static class TextureTree {
         private final TextureMap parentMap;
-        private final Map<BigInteger, TextureTreeNode> accessMap;
+        private final Map<TextureKey, TextureTreeNode> accessMap;
+        private final List<Rectangle> freeAreas = new ArrayList<>(); // Space left behind by removed textures, which new textures can reuse.
         private int width; // Width of tree.
         private int height; // Height of tree.
+        private ShaderMode mode; // The mode the tree was built for.
         private TextureTreeNode rootNode;
         private BufferedImage image;
+        private int[] pixels; // The pixels of the image, which textures are copied straight into.
+        private final List<Rectangle> dirtyAreas = new ArrayList<>(); // Areas of the image which changed since they were last written to the FX image.
+        private int overlayX; // Where the next overlay goes.
+        private int overlayY;
+        private int overlayMinX;
+        private int overlayMinY;
+
+        private static final double MAX_FREE_AREA_RATIO = .25; // Once this much of the tree is space left by removed textures, the tree is rebuilt.
 
         public TextureTree(TextureMap parentMap) {
             this.parentMap = parentMap;
@@ -295,23 +325,28 @@ public class TextureMap {
         /**
          * Rebuilds the texture tree.
          */
-        public void rebuildTree(Map<BigInteger, TextureSource> sourceMap) {
+        public void rebuildTree(Map<TextureKey, TextureSource> sourceMap) {
+            for (TextureTreeNode node : this.accessMap.values())
+                clearNode(node); // Only the areas which held textures need to be cleared.
+
             this.width = getParentMap().getWidth();
             this.height = getParentMap().getHeight();
+            this.mode = getParentMap().getMode();
 
             this.rootNode = new TextureTreeNode(this);
             this.rootNode.setWidth(getWidth());
             this.rootNode.setHeight(getHeight());
 
             this.accessMap.clear();
+            this.freeAreas.clear();
 
-            int minX = getWidth() - MAPFile.VERTEX_COLOR_IMAGE_SIZE; // Our goal is to start in the bottom right corner, and grow out.
-            int minY = getHeight() - MAPFile.VERTEX_COLOR_IMAGE_SIZE;
-            int x = minX;
-            int y = minY;
+            this.overlayMinX = getWidth() - MAPFile.VERTEX_COLOR_IMAGE_SIZE; // Our goal is to start in the bottom right corner, and grow out.
+            this.overlayMinY = getHeight() - MAPFile.VERTEX_COLOR_IMAGE_SIZE;
+            this.overlayX = this.overlayMinX;
+            this.overlayY = this.overlayMinY;
 
             List<TextureEntry> images = new ArrayList<>();
-            for (BigInteger key : sourceMap.keySet()) {
+            for (TextureKey key : sourceMap.keySet()) {
                 TextureSource source = sourceMap.get(key);
 
                 BufferedImage image = source.makeTexture(getParentMap());
@@ -319,20 +354,7 @@ public class TextureMap {
                     continue;
 
                 if (source.isOverlay(getParentMap())) {
-                    this.accessMap.put(key, TextureTreeNode.newNode(this, x, y, image.getWidth(), image.getHeight(), image));
-
-                    if (y > minY) {
-                        y -= image.getHeight();
-                    } else {
-                        x += image.getWidth();
-                    }
-
-                    if (minY >= y && x >= getWidth()) { // We've reached the end of the cycle, time to reset.
-                        minX -= image.getWidth();
-                        minY -= image.getHeight();
-                        x = minX;
-                        y = getHeight() - MAPFile.VERTEX_COLOR_IMAGE_SIZE;
-                    }
+                    this.accessMap.put(key, setupNode(placeOverlay(image), source, image));
                 } else {
                     images.add(new TextureEntry(key, source, image));
                 }
@@ -349,19 +371,159 @@ public class TextureMap {
                     throw new RuntimeException("TextureSource returned null GameImage. " + entry.getSource());
 
                 TextureTreeNode newNode = insert(gameImage);
+                if (newNode != null)
+                    this.accessMap.put(entry.getId(), setupNode(newNode, entry.getSource(), entry.getImage()));
+            }
+
+            updateImage();
+        }
+
+        /**
+         * Updates the tree to hold the textures in a source map, by only removing the textures which are no longer used or have changed, and adding the new ones.
+         * @param sourceMap The textures the tree should hold.
+         * @return If the tree was updated. If false, the tree must be rebuilt, because it was built for a different size or mode, or the new textures did not fit.
+         */
+        public boolean updateTree(Map<TextureKey, TextureSource> sourceMap) {
+            if (this.rootNode == null || this.mode != getParentMap().getMode() || this.width != getParentMap().getWidth() || this.height != getParentMap().getHeight())
+                return false;
+
+            List<TextureKey> removedKeys = new ArrayList<>();
+            for (Entry<TextureKey, TextureTreeNode> entry : this.accessMap.entrySet()) {
+                TextureSource source = sourceMap.get(entry.getKey());
+                if (source == null || entry.getValue().isOutdated(source))
+                    removedKeys.add(entry.getKey());
+            }
+
+            for (TextureKey key : removedKeys)
+                removeSource(key);
+
+            if (getFreeArea() > MAX_FREE_AREA_RATIO * getWidth() * getHeight())
+                return false; // Too much space would be wasted, so it's time to pack the textures again.
+
+            for (Entry<TextureKey, TextureSource> entry : sourceMap.entrySet())
+                if (!this.accessMap.containsKey(entry.getKey()) && !insertSource(entry.getKey(), entry.getValue()))
+                    return false;
+
+            return true;
+        }
+
+        /**
+         * Adds a texture to the tree, reusing space left by removed textures if possible.
+         * @param key    The key of the texture.
+         * @param source The source of the texture.
+         * @return If the texture fit in the tree.
+         */
+        public boolean insertSource(TextureKey key, TextureSource source) {
+            BufferedImage image = source.makeTexture(getParentMap());
+            if (image == null)
+                return true; // Nothing to add, which is the same as when the tree is built.
+
+            TextureTreeNode newNode;
+            if (source.isOverlay(getParentMap())) {
+                newNode = takeFreeArea(image.getWidth(), image.getHeight());
+                if (newNode == null)
+                    newNode = placeOverlay(image);
+            } else {
+                GameImage gameImage = source.getGameImage(getParentMap());
+                if (gameImage == null)
+                    throw new RuntimeException("TextureSource returned null GameImage. " + source);
+
+                newNode = takeFreeArea(gameImage.getFullWidth(), gameImage.getFullHeight());
                 if (newNode != null) {
-                    newNode.setImage(entry.getImage());
-                    this.accessMap.put(entry.getId(), newNode);
+                    newNode.setGameImage(gameImage);
+                } else {
+                    newNode = insert(gameImage);
                 }
             }
 
-            updateImage();
+            if (newNode == null || newNode.getX() < 0 || newNode.getY() < 0)
+                return false;
+
+            this.accessMap.put(key, setupNode(newNode, source, image));
+            drawNode(newNode);
+            return true;
+        }
+
+        /**
+         * Removes a texture from the tree. The space it took up can be reused by new textures.
+         * @param key The key of the texture to remove.
+         */
+        public void removeSource(TextureKey key) {
+            TextureTreeNode node = this.accessMap.remove(key);
+            if (node == null)
+                return;
+
+            this.freeAreas.add(new Rectangle(node.getX(), node.getY(), node.getWidth(), node.getHeight()));
+            clearNode(node);
+        }
+
+        /**
+         * Gets the amount of space left behind by removed textures, which has not been reused.
+         * @return freeArea
+         */
+        public long getFreeArea() {
+            long freeArea = 0;
+            for (Rectangle area : this.freeAreas)
+                freeArea += (long) area.width * area.height;
+            return freeArea;
+        }
+
+        // Places an overlay by walking outwards from the bottom right corner.
+        private TextureTreeNode placeOverlay(BufferedImage image) {
+            TextureTreeNode newNode = TextureTreeNode.newNode(this, this.overlayX, this.overlayY, image.getWidth(), image.getHeight(), image);
+
+            if (this.overlayY > this.overlayMinY) {
+                this.overlayY -= image.getHeight();
+            } else {
+                this.overlayX += image.getWidth();
+            }
+
+            if (this.overlayMinY >= this.overlayY && this.overlayX >= getWidth()) { // We've reached the end of the cycle, time to reset.
+                this.overlayMinX -= image.getWidth();
+                this.overlayMinY -= image.getHeight();
+                this.overlayX = this.overlayMinX;
+                this.overlayY = getHeight() - MAPFile.VERTEX_COLOR_IMAGE_SIZE;
+            }
+
+            return newNode;
+        }
+
+        // Takes the free area which fits a texture the best, and splits what's left of it into new free areas.
+        private TextureTreeNode takeFreeArea(int width, int height) {
+            Rectangle best = null;
+            int bestShortSide = Integer.MAX_VALUE;
+            for (Rectangle area : this.freeAreas) {
+                int shortSide = Math.min(area.width - width, area.height - height);
+                if (shortSide >= 0 && shortSide < bestShortSide) {
+                    best = area;
+                    bestShortSide = shortSide;
+                }
+            }
+
+            if (best == null)
+                return null;
+
+            this.freeAreas.remove(best);
+            if (best.width > width)
+                this.freeAreas.add(new Rectangle(best.x + width, best.y, best.width - width, height));
+            if (best.height > height)
+                this.freeAreas.add(new Rectangle(best.x, best.y + height, best.width, best.height - height));
+            return TextureTreeNode.newNode(this, best.x, best.y, width, height, null);
+        }
+
+        // Remembers what a node was made from, so it can tell when it is outdated.
+        private TextureTreeNode setupNode(TextureTreeNode node, TextureSource source, BufferedImage image) {
+            GameImage gameImage = source.getGameImage(getParentMap());
+            node.setImage(image);
+            node.setOverlay(source.isOverlay(getParentMap()));
+            node.setSourceImage(gameImage != null ? gameImage.toBufferedImage() : null);
+            return node;
         }
 
         @Getter
         @AllArgsConstructor
         private static class TextureEntry {
-            private BigInteger id;
+            private TextureKey id;
             private TextureSource source;
             private BufferedImage image;
         }
@@ -441,20 +603,95 @@ public class TextureMap {
 
         /**
          * Updates the image, remaking it if necessary.
+         * The areas textures were removed from are already cleared, so only the textures are drawn.
          */
         public void updateImage() {
-            if (this.image == null || (this.image.getWidth() != getWidth() || this.image.getHeight() != getHeight())) // Gotta make a new one, the old one is invalidated.
+            if (this.image == null || (this.image.getWidth() != getWidth() || this.image.getHeight() != getHeight())) { // Gotta make a new one, the old one is invalidated.
                 this.image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_ARGB);
-
-            Graphics2D graphics = this.image.createGraphics();
-            graphics.setBackground(new Color(255, 255, 255, 0));
-            graphics.clearRect(0, 0, this.image.getWidth(), this.image.getHeight());
+                this.pixels = Utils.getPixelArray(this.image);
+                this.dirtyAreas.clear(); // The new image starts empty, so only what is drawn onto it has changed.
+            }
 
             // Draw each node.
             for (TextureTreeNode node : this.accessMap.values())
-                graphics.drawImage(node.getImage(), node.getX(), node.getY(), node.getWidth(), node.getHeight(), null);
+                drawNode(node);
+        }
+
+        /**
+         * Draws a single node onto the image.
+         * @param node The node to draw.
+         */
+        public void drawNode(TextureTreeNode node) {
+            Rectangle area = getImageArea(node);
+            if (area == null)
+                return;
+
+            BufferedImage nodeImage = node.getImage();
+            int[] nodePixels = Utils.getPixelArray(nodeImage);
+            if (nodePixels != null && nodeImage.getWidth() == node.getWidth() && nodeImage.getHeight() == node.getHeight()) {
+                for (int y = area.y; y < area.y + area.height; y++) {
+                    int sourceIndex = (y - node.getY()) * node.getWidth() + (area.x - node.getX());
+                    int index = y * this.image.getWidth() + area.x;
+                    for (int x = 0; x < area.width; x++) {
+                        int pixel = nodePixels[sourceIndex + x];
+                        this.pixels[index + x] = (pixel >>> 24) != 0 ? pixel : 0; // Fully transparent pixels are left clear, like when they are drawn.
+                    }
+                }
+            } else { // The image needs to be scaled, so let Java2D draw it.
+                Graphics2D graphics = this.image.createGraphics();
+                graphics.setBackground(new Color(255, 255, 255, 0));
+                graphics.clearRect(area.x, area.y, area.width, area.height);
+                graphics.drawImage(nodeImage, node.getX(), node.getY(), node.getWidth(), node.getHeight(), null);
+                graphics.dispose();
+            }
+
+            this.dirtyAreas.add(area);
+        }
+
+        // Clears the area of the image a node takes up.
+        private void clearNode(TextureTreeNode node) {
+            Rectangle area = getImageArea(node);
+            if (area == null)
+                return;
+
+            for (int y = area.y; y < area.y + area.height; y++) {
+                int index = y * this.image.getWidth() + area.x;
+                Arrays.fill(this.pixels, index, index + area.width, 0);
+            }
+
+            this.dirtyAreas.add(area);
+        }
+
+        // Gets the part of the image a node takes up, or null if there is none.
+        private Rectangle getImageArea(TextureTreeNode node) {
+            if (this.image == null)
+                return null;
+
+            Rectangle area = new Rectangle(node.getX(), node.getY(), node.getWidth(), node.getHeight()).intersection(new Rectangle(this.image.getWidth(), this.image.getHeight()));
+            return area.isEmpty() ? null : area;
+        }
+
+        /**
+         * Marks the area of every node as changed, so they are all written to the next FX image.
+         */
+        public void markNodesDirty() {
+            this.dirtyAreas.clear();
+            for (TextureTreeNode node : this.accessMap.values()) {
+                Rectangle area = getImageArea(node);
+                if (area != null)
+                    this.dirtyAreas.add(area);
+            }
+        }
 
-            graphics.dispose();
+        /**
+         * Writes the areas of the image which changed to an FX image of the same size.
+         * @param fxImage The FX image to write to.
+         */
+        public void writeDirtyAreas(WritableImage fxImage) {
+            PixelWriter pixelWriter = fxImage.getPixelWriter();
+            for (Rectangle area : this.dirtyAreas)
+                pixelWriter.setPixels(area.x, area.y, area.width, area.height, PixelFormat.getIntArgbInstance(), this.pixels, area.y * this.image.getWidth() + area.x, this.image.getWidth());
+            this.dirtyAreas.clear();
         }
     }
 
@@ -470,6 +707,8 @@ public class TextureMap {
         private int height;
         private GameImage gameImage;
         private BufferedImage image;
+        private boolean overlay;
+        private BufferedImage sourceImage; // The image of the GameImage this was made from, which is replaced when the GameImage changes.
 
         public TextureTreeNode(TextureTree tree) {
             this.tree = tree;
@@ -490,6 +729,20 @@ public class TextureMap {
                 getRight().toString(padding + " ", builder, "Right");
         }
 
+        /**
+         * Tests if this node no longer matches what its source would create.
+         * The key of a source already covers most changes, but not whether it is an overlay, or changes to the image it uses.
+         * @param source The source this node was made from.
+         * @return isOutdated
+         */
+        public boolean isOutdated(TextureSource source) {
+            if (source.isOverlay(getTree().getParentMap()) != this.overlay)
+                return true;
+
+            GameImage sourceGameImage = source.getGameImage(getTree().getParentMap());
+            return (sourceGameImage != null ? sourceGameImage.toBufferedImage() : null) != this.sourceImage;
+        }
+
         public float getMinU() {
             return (float) getStartX() / (float) getTree().getWidth();
         }
@@ -555,6 +808,103 @@ public class TextureMap {
         private final double heightMultiplier;
     }
 
+    /**
+     * Identifies the texture a TextureSource creates. Sources which create the same texture have equal keys.
+     * Keys are packed into 128 bits, with the kind of source in the highest byte, so they are cheap to create, hash and compare.
+     * Created by agent on 10/18/2026.
+     */
+    @Getter
+    public static final class TextureKey {
+        private final long high;
+        private final long low;
+
+        public static final int KIND_TEXTURE = 1;
+        public static final int KIND_TEXTURE_COLOR = 2;
+        public static final int KIND_FLAT_COLOR = 3;
+        public static final int KIND_OVERLAY_COLOR = 4;
+        public static final int KIND_UNKNOWN = 5;
+        public static final int KIND_CURSOR = 6;
+        public static final int KIND_GOURAUD_TEXTURE = 7;
+        public static final int KIND_GOURAUD = 8;
+
+        private static final int KIND_SHIFT = 56;
+        private static final int COLOR_COUNT_SHIFT = 48;
+        private static final int TEXTURE_ID_SHIFT = 32;
+        private static final int RGB_BITS = 24;
+        private static final long RGB_MASK = (1L << RGB_BITS) - 1;
+        private static final int MAX_COLORS = 4;
+
+        private TextureKey(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof TextureKey))
+                return false;
+
+            TextureKey otherKey = (TextureKey) other;
+            return this.high == otherKey.high && this.low == otherKey.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.high * 0x9E3779B97F4A7C15L + this.low);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016X%016X", this.high, this.low);
+        }
+
+        /**
+         * Creates a key from a single value, such as a texture id or a color.
+         * @param kind  The kind of source.
+         * @param value The value.
+         * @return textureKey
+         */
+        public static TextureKey of(int kind, int value) {
+            return new TextureKey((long) kind << KIND_SHIFT, value & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Creates a key from two values, such as a texture id and a color.
+         * @param kind   The kind of source.
+         * @param first  The first value.
+         * @param second The second value.
+         * @return textureKey
+         */
+        public static TextureKey of(int kind, int first, int second) {
+            return new TextureKey((long) kind << KIND_SHIFT, ((long) first << Integer.SIZE) | (second & 0xFFFFFFFFL));
+        }
+
+        /**
+         * Creates a key for a gouraud shaded polygon. The colors take up the lowest 96 bits, above which are the texture id and the color count.
+         * @param kind      The kind of source.
+         * @param textureId The texture id, if there is one.
+         * @param colors    The vertex colors. Only their 24bit RGB values are used.
+         * @return textureKey
+         */
+        public static TextureKey of(int kind, short textureId, PSXColorVector[] colors) {
+            if (colors.length > MAX_COLORS)
+                throw new RuntimeException("Cannot create a TextureKey for " + colors.length + " colors.");
+
+            long high = ((long) kind << KIND_SHIFT) | ((long) colors.length << COLOR_COUNT_SHIFT) | ((long) (textureId & 0xFFFF) << TEXTURE_ID_SHIFT);
+            long low = 0;
+            for (int i = 0; i < colors.length; i++) {
+                long rgb = colors[i].toRGB() & RGB_MASK;
+                int bitOffset = i * RGB_BITS;
+                if (bitOffset < Long.SIZE)
+                    low |= rgb << bitOffset;
+                if (bitOffset + RGB_BITS > Long.SIZE) // Part or all of this color goes in the high bits.
+                    high |= bitOffset >= Long.SIZE ? rgb << (bitOffset - Long.SIZE) : rgb >>> (Long.SIZE - bitOffset);
+            }
+
+            return new TextureKey(high, low);
+        }
+    }
+
     /**
      * Represents something which creates a texture that goes into the TextureTree.
      * Created by Kneesnap on 2/25/2020.
@@ -571,17 +921,9 @@ public class TextureMap {
         boolean isOverlay(TextureMap map);
 
         /**
-         * Creates a hash code identifier which should match other textures that would look exactly the same, but not match others.
+         * Creates an identifier which should match other textures that would look exactly the same, but not match others.
          */
-        BigInteger makeIdentifier(TextureMap map);
-
-        default BigInteger makeIdentifier(int... colors) {
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < colors.length; i++)
-                sb.append(Utils.padStringLeft(Integer.toHexString(colors[i]).toUpperCase(), Constants.INTEGER_SIZE, '0'));
-
-            return new BigInteger(sb.toString(), 16);
-        }
+        TextureKey makeIdentifier(TextureMap map);
 
         /**
          * Gets the GameImage this source represents, if it represents one.
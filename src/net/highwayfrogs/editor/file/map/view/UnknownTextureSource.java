@@ -1,12 +1,12 @@
 package net.highwayfrogs.editor.file.map.view;
 
 import net.highwayfrogs.editor.file.map.MAPFile;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.map.view.TextureMap.TextureSource;
 import net.highwayfrogs.editor.file.vlo.GameImage;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 
 /**
  * Represents a texture which was not found.
@@ -51,8 +51,8 @@ public class UnknownTextureSource implements TextureSource {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
-        return makeIdentifier(0xFA175AFE);
+    public TextureKey makeIdentifier(TextureMap map) {
+        return TextureKey.of(TextureKey.KIND_UNKNOWN, 0);
     }
 
     @Override
@@ -49,7 +49,7 @@ public class MOFCollprim extends GameObject {
     public void load(DataReader reader) {
         CollprimType type = CollprimType.values()[reader.readUnsignedShortAsInt()];
         if (type != CollprimType.CUBOID && !getConfig().isSonyPresentation())
-            throw new RuntimeException("MOFCollprim was type " + type + ", which is not supported. (" + WADFile.CURRENT_FILE_NAME + ")");
+            throw new RuntimeException("MOFCollprim was type " + type + ", which is not supported. (" + WADFile.CURRENT_FILE_NAME.get() + ")");
 
         this.flags = reader.readUnsignedShortAsInt();
         reader.skipInt(); // Run-time.
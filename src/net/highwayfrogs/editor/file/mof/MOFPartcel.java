@@ -39,14 +39,12 @@ public class MOFPartcel extends GameObject {
 
         // Read Vertexes.
         reader.jumpTemp(verticePointer);
-        for (int i = 0; i < vertexCount; i++)
-            vertices.add(SVector.readWithPadding(reader));
+        SVector.readWithPadding(reader, vertexCount, vertices);
         reader.jumpReturn();
 
         // Read normals.
         reader.jumpTemp(normalPointer);
-        for (int i = 0; i < normalCount; i++)
-            normals.add(SVector.readWithPadding(reader));
+        SVector.readWithPadding(reader, normalCount, normals);
         reader.jumpReturn();
 
         // Would read bbox here, but it's unused.
@@ -55,8 +53,7 @@ public class MOFPartcel extends GameObject {
     @Override
     public void save(DataWriter writer) {
         this.tempVertexPointer = writer.getIndex();
-        for (SVector vertex : getVertices())
-            vertex.saveWithPadding(writer);
+        SVector.saveWithPadding(writer, getVertices());
     }
 
     /**
@@ -66,8 +63,7 @@ public class MOFPartcel extends GameObject {
     public void saveNormalData(DataWriter writer) {
         if (!parent.getSaveNormalMap().containsKey(getNormals())) {
             parent.getSaveNormalMap().put(getNormals(), writer.getIndex());
-            for (SVector vector : getNormals())
-                vector.saveWithPadding(writer);
+            SVector.saveWithPadding(writer, getNormals());
         }
     }
 
@@ -10,6 +10,7 @@ import net.highwayfrogs.editor.file.map.poly.polygon.MAPPolygon;
 import net.highwayfrogs.editor.file.map.view.FrogMesh;
 import net.highwayfrogs.editor.file.map.view.TextureMap;
 import net.highwayfrogs.editor.file.map.view.TextureMap.ShaderMode;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.mof.MOFPart;
 import net.highwayfrogs.editor.file.mof.view.MOFMesh;
 import net.highwayfrogs.editor.file.reader.DataReader;
@@ -21,7 +22,6 @@ import net.highwayfrogs.editor.utils.Utils;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
 
 
 /**
@@ -142,13 +142,13 @@ public class MOFPolyTexture extends MOFPolygon implements TexturedPoly {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
+    public TextureKey makeIdentifier(TextureMap map) {
         if (map.getMode() == ShaderMode.NO_SHADING || (map.isUseModelTextureAnimation() && this.viewImageId != (short) -1)) {
-            return makeIdentifier(0x7E8BA5E, getUseTextureId(map));
+            return TextureKey.of(TextureKey.KIND_TEXTURE, getUseTextureId(map));
         } else if (isOverlay(map)) {
-            return makeIdentifier(0xF1A754AD, getColor().toRGB());
+            return TextureKey.of(TextureKey.KIND_OVERLAY_COLOR, getColor().toRGB());
         } else {
-            return makeIdentifier(0xF1A77E8, getImageId(), getColor().toRGB());
+            return TextureKey.of(TextureKey.KIND_TEXTURE_COLOR, getImageId(), getColor().toRGB());
         }
     }
 
@@ -1,5 +1,6 @@
 package net.highwayfrogs.editor.file.packers;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.Constants;
@@ -45,7 +46,17 @@ public class PP20Packer {
      * @return packedData
      */
     public static byte[] packData(byte[] data) {
-        return packData(data, false, EXTREME_COMPRESSION_SETTINGS);
+        return packData(data, PP20Effort.EXTREME);
+    }
+
+    /**
+     * Packs a byte array using extreme compression settings.
+     * @param data   The data to pack.
+     * @param effort How thoroughly to search for repeated data.
+     * @return packedData
+     */
+    public static byte[] packData(byte[] data, PP20Effort effort) {
+        return packData(data, false, EXTREME_COMPRESSION_SETTINGS, effort);
     }
 
     /**
@@ -54,10 +65,20 @@ public class PP20Packer {
      * @return packedData
      */
     public static byte[] packData(byte[] data, boolean oldVersion, byte[] compressionSettings) {
+        return packData(data, oldVersion, compressionSettings, PP20Effort.EXTREME);
+    }
+
+    /**
+     * Pack a byte array into PP20 compressed data.
+     * @param data   The data to compress.
+     * @param effort How thoroughly to search for repeated data.
+     * @return packedData
+     */
+    public static byte[] packData(byte[] data, boolean oldVersion, byte[] compressionSettings, PP20Effort effort) {
         if (data.length > MAX_UNCOMPRESSED_FILE_SIZE)
             throw new RuntimeException("packData tried to compress data larger than the maximum PP20 file size! (" + data.length + " > " + MAX_UNCOMPRESSED_FILE_SIZE + ")!");
 
-        PackerDataInstance packerData = new PackerDataInstance(oldVersion, compressionSettings);
+        PackerDataInstance packerData = new PackerDataInstance(oldVersion, compressionSettings, effort);
 
         // Take the compressed data, and pad it with the file structure. Then, we're done.
         byte[] compressedData = compressData(data, packerData);
@@ -125,13 +146,15 @@ public class PP20Packer {
             int dataRefCompressionLevel = bits;
             int dataRefOffset = 0;
             int repeats = 1;
+            int chainSteps = 0;
             while (true) {
                 nextSrc += repeats - 1;
                 cmpSrc += repeats - 1;
                 boolean skip = false;
 
                 int offset;
-                while ((offset = info.getWindowArray()[info.getWindowOffset()]) != 0) {
+                while (chainSteps++ < info.getMaxChainLength() && repeats < info.getNiceMatchLength()
+                        && (offset = info.getWindowArray()[info.getWindowOffset()]) != 0) { // Follow the chain of earlier occurrences, until the search gives up.
                     nextSrc += offset;
                     info.setWindowOffset(info.getWindowOffset() + offset);
 
@@ -255,8 +278,10 @@ public class PP20Packer {
         private int windowOffset;
         private int windowLeft;
         private final int[] addrs;
+        private final int maxChainLength;
+        private final int niceMatchLength;
 
-        public PackerDataInstance(boolean oldVersion, byte[] compressionSettings) {
+        public PackerDataInstance(boolean oldVersion, byte[] compressionSettings, PP20Effort effort) {
             if (compressionSettings == null || compressionSettings.length != 4)
                 throw new RuntimeException("Compression Settings should have four entries. Had: " + (compressionSettings != null ? compressionSettings.length : -1));
 
@@ -269,6 +294,8 @@ public class PP20Packer {
             this.windowMax = (1 << compressionSettings[3]) * Constants.SHORT_SIZE * multiply;
             this.windowArray = new short[2 * multiply * this.windowMax];
             this.addrs = new int[65536]; // 0x10000. Sized at every possible combination of two chars.
+            this.maxChainLength = effort.getMaxChainLength();
+            this.niceMatchLength = effort.getNiceMatchLength();
             clear();
         }
 
@@ -282,4 +309,18 @@ public class PP20Packer {
             Arrays.fill(this.windowArray, (short) 0);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * How thoroughly the packer searches for repeated data.
+     * Every effort level produces valid PP20 data, lower effort levels just find fewer or shorter repeats.
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum PP20Effort {
+        FAST(16, 32), // Gives up after checking a limited number of earlier occurrences, or once a long enough repeat is found. Good for saving while editing.
+        EXTREME(Integer.MAX_VALUE, Integer.MAX_VALUE); // Checks every earlier occurrence, creating output identical to the original packer. Good for final builds.
+
+        private final int maxChainLength;
+        private final int niceMatchLength;
+    }
+}
@@ -1,9 +1,12 @@
 package net.highwayfrogs.editor.file.packers;
 
 import net.highwayfrogs.editor.Constants;
+import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.writer.BitReader;
 import net.highwayfrogs.editor.utils.Utils;
 
+import java.nio.ByteBuffer;
+
 /**
  * PP20 Unpacker: Unpacks PowerPacker compressed data.
  * Source:
@@ -23,6 +26,22 @@ public class PP20Unpacker {
         return a.length > 11 && Utils.testSignature(a, PP20Packer.MARKER_BYTES);
     }
 
+    /**
+     * Is the data at a reader's current position PP20 compressed data? The reader's position is not changed.
+     * @param reader The reader to test the data of.
+     * @param size   The size of the data to test.
+     * @return isCompressed
+     */
+    public static boolean isCompressed(DataReader reader, int size) {
+        if (size <= 11)
+            return false;
+
+        reader.jumpTemp(reader.getIndex());
+        boolean compressed = Utils.testSignature(reader.readBytes(PP20Packer.MARKER_BYTES.length), PP20Packer.MARKER_BYTES);
+        reader.jumpReturn();
+        return compressed;
+    }
+
     /**
      * Unpacks PP20 compressed data.
      * @param data The data to unpack.
@@ -30,17 +49,67 @@ public class PP20Unpacker {
      */
     public static byte[] unpackData(byte[] data) {
         Utils.verify(isCompressed(data), "Not PowerPacker (PP20) compressed data!");
+        byte[] out = new byte[getUnpackedSize(data)];
+        unpackData(data, out, 0);
+        return out;
+    }
+
+    /**
+     * Unpacks PP20 compressed data into an existing array, so a buffer can be reused instead of allocating a new one for each file.
+     * @param data   The data to unpack.
+     * @param output The array to write the unpacked data to. Must have room for getUnpackedSize(data) bytes after the offset.
+     * @param offset The index in the output array to start writing at.
+     * @return unpackedSize
+     */
+    public static int unpackData(byte[] data, byte[] output, int offset) {
+        Utils.verify(isCompressed(data), "Not PowerPacker (PP20) compressed data!");
+        int unpackedSize = getUnpackedSize(data);
+        if (offset < 0 || offset + unpackedSize > output.length)
+            throw new RuntimeException("Cannot unpack " + unpackedSize + " bytes at offset " + offset + " into an array of " + output.length + " bytes.");
+
         int[] offsetBitLengths = getOffsetBitLengths(data);
         int skip = data[data.length - 1] & 0xFF; // Last byte contains the amount of bits to trash.
-        byte[] out = new byte[getDecodedDataSize(data)];
-        int outPos = out.length;
+        int outPos = offset + unpackedSize;
         BitReader in = new BitReader(data, 4);
         in.setReverseBytes(true);
         in.readBits(skip); // skipped bits
 
-        while (outPos > 0)
-            outPos = decodeSegment(in, out, outPos, offsetBitLengths);
-        return out;
+        while (outPos > offset)
+            outPos = decodeSegment(in, output, outPos, offset, offsetBitLengths);
+        return unpackedSize;
+    }
+
+    /**
+     * Unpacks PP20 compressed data into a buffer, starting at its position. The position is moved past the unpacked data.
+     * @param data   The data to unpack.
+     * @param output The buffer to write the unpacked data to.
+     * @return unpackedSize
+     */
+    public static int unpackData(byte[] data, ByteBuffer output) {
+        int unpackedSize = getUnpackedSize(data);
+        if (unpackedSize > output.remaining())
+            throw new RuntimeException("Cannot unpack " + unpackedSize + " bytes into a buffer with " + output.remaining() + " bytes remaining.");
+
+        if (output.hasArray()) { // Write straight into the backing array.
+            unpackData(data, output.array(), output.arrayOffset() + output.position());
+        } else { // Back-references read earlier output, so it is unpacked to an array first.
+            output.put(unpackData(data));
+            return unpackedSize;
+        }
+
+        output.position(output.position() + unpackedSize);
+        return unpackedSize;
+    }
+
+    /**
+     * Gets the size the data will have once unpacked, without unpacking it.
+     * PP20 stores this in the three bytes before the last byte.
+     * @param data The PP20 compressed data.
+     * @return unpackedSize
+     */
+    public static int getUnpackedSize(byte[] data) {
+        int i = data.length - 2;
+        return (data[i - 2] & 0xFF) << 16 | (data[i - 1] & 0xFF) << 8 | data[i] & 0xFF;
     }
 
     private static int[] getOffsetBitLengths(byte[] data) {
@@ -50,15 +119,10 @@ public class PP20Unpacker {
         return a;
     }
 
-    private static int getDecodedDataSize(byte[] data) {
-        int i = data.length - 2;
-        return (data[i - 2] & 0xFF) << 16 | (data[i - 1] & 0xFF) << 8 | data[i] & 0xFF;
-    }
-
-    private static int decodeSegment(BitReader in, byte[] out, int outPos, int[] offsetBitLengths) {
+    private static int decodeSegment(BitReader in, byte[] out, int outPos, int outStart, int[] offsetBitLengths) {
         if (in.readBit() == PP20Packer.HAS_RAW_DATA_BIT)
             outPos = copyFromInput(in, out, outPos);
-        if (outPos > 0)
+        if (outPos > outStart)
             outPos = copyFromDecoded(in, out, outPos, offsetBitLengths);
         return outPos;
     }
@@ -90,8 +154,15 @@ public class PP20Unpacker {
             } while (lastLengthBits == PP20Packer.OFFSET_CONTINUE_WRITING_BITS);
         }
 
-        for (int i = 0; i < copyLength; i++, bytePos--)
-            out[bytePos - 1] = out[bytePos + off];
+        // Data is copied from (off + 1) bytes later in the output. When the repeat is longer than that, it repeats data written by this same copy.
+        // So, copy it in chunks which are no longer than that distance, each of which only reads data which has already been written.
+        int distance = off + 1;
+        while (copyLength > 0) {
+            int chunkLength = Math.min(distance, copyLength);
+            bytePos -= chunkLength;
+            System.arraycopy(out, bytePos + distance, out, bytePos, chunkLength);
+            copyLength -= chunkLength;
+        }
 
         return bytePos;
     }
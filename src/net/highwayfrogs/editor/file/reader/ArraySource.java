@@ -1,42 +1,107 @@
 package net.highwayfrogs.editor.file.reader;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import net.highwayfrogs.editor.Constants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * Allows reading from a byte array.
+ * The source may be a view over part of a larger array, in which case indices are relative to the start of the view.
  * Created by Kneesnap on 8/11/2018.
  */
 @Getter
 public class ArraySource implements DataSource {
     @Setter private int index;
     private byte[] data;
+    private int offset;
+    private int length;
+    @Getter(AccessLevel.NONE) private ByteBuffer buffer; // Little-endian view of the data, used to read primitives.
 
     public ArraySource(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public ArraySource(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length)
+            throw new ArrayIndexOutOfBoundsException("Cannot view " + length + " bytes at " + offset + " of an array with " + data.length + " bytes.");
+
         this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
     public byte readByte() {
-        return data[this.index++];
+        if (this.index >= this.length)
+            throw new ArrayIndexOutOfBoundsException("Tried to read past the end of the data. (" + this.index + "/" + this.length + ")");
+        return data[this.offset + this.index++];
     }
 
     @Override
     public byte[] readBytes(int amount) {
+        checkRemaining(amount);
         byte[] readBytes = new byte[amount];
-        System.arraycopy(this.data, this.index, readBytes, 0, amount);
+        System.arraycopy(this.data, this.offset + this.index, readBytes, 0, amount);
         this.index += amount;
         return readBytes;
     }
 
+    @Override
+    public short readShort() {
+        checkRemaining(Constants.SHORT_SIZE);
+        short value = this.buffer.getShort(this.offset + this.index);
+        this.index += Constants.SHORT_SIZE;
+        return value;
+    }
+
+    @Override
+    public int readInt() {
+        checkRemaining(Constants.INTEGER_SIZE);
+        int value = this.buffer.getInt(this.offset + this.index);
+        this.index += Constants.INTEGER_SIZE;
+        return value;
+    }
+
+    @Override
+    public void readShorts(short[] destination, int offset, int length) {
+        checkRemaining(length * Constants.SHORT_SIZE);
+        int readIndex = this.offset + this.index;
+        for (int i = 0; i < length; i++, readIndex += Constants.SHORT_SIZE)
+            destination[offset + i] = this.buffer.getShort(readIndex);
+        this.index += length * Constants.SHORT_SIZE;
+    }
+
+    @Override
+    public void readInts(int[] destination, int offset, int length) {
+        checkRemaining(length * Constants.INTEGER_SIZE);
+        int readIndex = this.offset + this.index;
+        for (int i = 0; i < length; i++, readIndex += Constants.INTEGER_SIZE)
+            destination[offset + i] = this.buffer.getInt(readIndex);
+        this.index += length * Constants.INTEGER_SIZE;
+    }
+
     @Override
     public void skip(int byteCount) {
         this.index += byteCount;
     }
 
-
     @Override
     public int getSize() {
-        return data.length;
+        return this.length;
+    }
+
+    @Override
+    public DataSource slice(int offset, int length) {
+        return new ArraySource(this.data, this.offset + offset, length);
+    }
+
+    private void checkRemaining(int amount) {
+        if (amount > this.length - this.index)
+            throw new ArrayIndexOutOfBoundsException("Tried to read " + amount + " bytes, but only " + (this.length - this.index) + " remain.");
     }
 }
@@ -138,7 +138,7 @@ public class DataReader {
      * @return floatValue
      */
     public float readFloat() {
-        return Utils.readFloatFromBytes(readBytes(Constants.FLOAT_SIZE));
+        return Float.intBitsToFloat(readInt());
     }
 
     /**
@@ -147,7 +147,11 @@ public class DataReader {
      * @return intValue
      */
     public int readInt() {
-        return readInt(Constants.INTEGER_SIZE);
+        try {
+            return source.readInt();
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read integer.", ex);
+        }
     }
 
     /**
@@ -156,10 +160,39 @@ public class DataReader {
      * @return shortValue
      */
     public short readShort() {
-        short value = 0;
-        for (int i = 0; i < Constants.SHORT_SIZE; i++)
-            value += ((long) readByte() & 0xFFL) << (Constants.BITS_PER_BYTE * i);
-        return value;
+        try {
+            return source.readShort();
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read short.", ex);
+        }
+    }
+
+    /**
+     * Read shorts until the array is filled.
+     * @param destination The array to read shorts into.
+     * @return destination
+     */
+    public short[] readShorts(short[] destination) {
+        try {
+            source.readShorts(destination, 0, destination.length);
+            return destination;
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read " + destination.length + " shorts.", ex);
+        }
+    }
+
+    /**
+     * Read integers until the array is filled.
+     * @param destination The array to read integers into.
+     * @return destination
+     */
+    public int[] readInts(int[] destination) {
+        try {
+            source.readInts(destination, 0, destination.length);
+            return destination;
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read " + destination.length + " integers.", ex);
+        }
     }
 
     /**
@@ -168,6 +201,9 @@ public class DataReader {
      * @return intValue
      */
     public int readInt(int bytes) {
+        if (bytes == Constants.INTEGER_SIZE)
+            return readInt();
+
         int value = 0;
         for (int i = 0; i < bytes; i++)
             value += ((long) readByte() & 0xFFL) << (Constants.BITS_PER_BYTE * i);
@@ -315,10 +351,21 @@ public class DataReader {
      * @return newReader
      */
     public DataReader newReader(int startOffset, int length) {
-        jumpTemp(startOffset);
-        byte[] bytes = readBytes(length >= 0 ? length : getRemaining());
-        jumpReturn();
+        return slice(startOffset, length >= 0 ? length : getSize() - startOffset);
+    }
 
-        return new DataReader(new ArraySource(bytes));
+    /**
+     * Create a sub-reader which reads a range of this reader's data, without copying it.
+     * The new reader starts at index zero, and has its own index independent of this reader.
+     * @param offset The offset to start reading from.
+     * @param length The amount of bytes the new reader can read.
+     * @return slicedReader
+     */
+    public DataReader slice(int offset, int length) {
+        try {
+            return new DataReader(source.slice(offset, length));
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to slice " + length + " bytes at " + offset + ".", ex);
+        }
     }
 }
@@ -21,6 +21,44 @@ public interface DataSource {
      */
     public byte[] readBytes(int amount) throws IOException;
 
+    /**
+     * Read the next two bytes as a little-endian short.
+     * @return shortValue
+     */
+    default short readShort() throws IOException {
+        return (short) ((readByte() & 0xFF) | ((readByte() & 0xFF) << 8));
+    }
+
+    /**
+     * Read the next four bytes as a little-endian integer.
+     * @return intValue
+     */
+    default int readInt() throws IOException {
+        return (readByte() & 0xFF) | ((readByte() & 0xFF) << 8) | ((readByte() & 0xFF) << 16) | ((readByte() & 0xFF) << 24);
+    }
+
+    /**
+     * Read little-endian shorts into an array.
+     * @param destination The array to read into.
+     * @param offset      The index into the array to start at.
+     * @param length      The amount of shorts to read.
+     */
+    default void readShorts(short[] destination, int offset, int length) throws IOException {
+        for (int i = 0; i < length; i++)
+            destination[offset + i] = readShort();
+    }
+
+    /**
+     * Read little-endian integers into an array.
+     * @param destination The array to read into.
+     * @param offset      The index into the array to start at.
+     * @param length      The amount of integers to read.
+     */
+    default void readInts(int[] destination, int offset, int length) throws IOException {
+        for (int i = 0; i < length; i++)
+            destination[offset + i] = readInt();
+    }
+
     /**
      * Skip a given number of bytes, from the current index.
      * @param byteCount The bytes to skip.
@@ -44,4 +82,20 @@ public interface DataSource {
      * @return size
      */
     public int getSize() throws IOException;
+
+    /**
+     * Create a new source which reads a range of this source's data.
+     * The index of the new source starts at zero, and is independent of this source.
+     * Sources which are backed by an array or buffer should override this to share their data instead of copying it.
+     * @param offset The offset into this source where the new source starts.
+     * @param length The amount of bytes the new source can read.
+     * @return slicedSource
+     */
+    default DataSource slice(int offset, int length) throws IOException {
+        int oldIndex = getIndex();
+        setIndex(offset);
+        byte[] data = readBytes(length);
+        setIndex(oldIndex);
+        return new ArraySource(data);
+    }
 }
\ No newline at end of file
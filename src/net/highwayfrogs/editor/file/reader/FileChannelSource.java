@@ -0,0 +1,119 @@
+package net.highwayfrogs.editor.file.reader;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Turns a file into a data source which reads the file as it is used, instead of reading all of it onto the heap.
+ * Slices only remember where their data is in the file, so when the parts of a large file are loaded lazily, only the parts which have been read use memory.
+ * The file stays open while the source is used. Replacing the file (such as by saving over it) doesn't change what the source reads.
+ * Created by agent on 10/18/2026.
+ */
+public class FileChannelSource implements DataSource {
+    private final FileChannel channel;
+    private final long offset; // Where this source starts in the file.
+    private final int size;
+    private int index;
+    private byte[] buffer; // Holds the data around the read index, so small reads don't each read from the file.
+    private int bufferStart;
+    private int bufferLength;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public FileChannelSource(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        long fileSize = this.channel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            this.channel.close();
+            throw new IOException("Cannot read '" + file.getName() + "', it is larger than 2GB.");
+        }
+
+        this.offset = 0;
+        this.size = (int) fileSize;
+    }
+
+    private FileChannelSource(FileChannel channel, long offset, int size) {
+        this.channel = channel;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        if (this.index >= this.size)
+            throw new IOException("Tried to read past the end of the file.");
+
+        if (this.buffer == null || this.index < this.bufferStart || this.index >= this.bufferStart + this.bufferLength)
+            fillBuffer();
+        return this.buffer[this.index++ - this.bufferStart];
+    }
+
+    @Override
+    public byte[] readBytes(int amount) throws IOException {
+        if (amount < 0 || amount > this.size - this.index)
+            throw new IOException("Tried to read " + amount + " bytes past the end of the file.");
+
+        byte[] bytes = new byte[amount];
+        if (this.buffer != null && this.index >= this.bufferStart && this.index + amount <= this.bufferStart + this.bufferLength) {
+            System.arraycopy(this.buffer, this.index - this.bufferStart, bytes, 0, amount);
+        } else { // Reads which aren't buffered go straight from the file into the array.
+            readFully(ByteBuffer.wrap(bytes), this.offset + this.index);
+        }
+
+        this.index += amount;
+        return bytes;
+    }
+
+    @Override
+    public void skip(int byteCount) throws IOException {
+        setIndex(this.index + byteCount);
+    }
+
+    @Override
+    public void setIndex(int newIndex) throws IOException {
+        if (newIndex < 0 || newIndex > this.size)
+            throw new IOException("Invalid index " + newIndex + ", the file size is " + this.size + ".");
+        this.index = newIndex;
+    }
+
+    @Override
+    public int getIndex() throws IOException {
+        return this.index;
+    }
+
+    @Override
+    public int getSize() throws IOException {
+        return this.size;
+    }
+
+    @Override
+    public DataSource slice(int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > this.size)
+            throw new IOException("Cannot slice " + length + " bytes at " + offset + ", the file size is " + this.size + ".");
+        return new FileChannelSource(this.channel, this.offset + offset, length);
+    }
+
+    private void fillBuffer() throws IOException {
+        if (this.buffer == null)
+            this.buffer = new byte[BUFFER_SIZE];
+
+        this.bufferStart = this.index;
+        this.bufferLength = Math.min(BUFFER_SIZE, this.size - this.index);
+        readFully(ByteBuffer.wrap(this.buffer, 0, this.bufferLength), this.offset + this.bufferStart);
+    }
+
+    // Positional reads don't use the channel's position, so slices can read from the same channel on different threads.
+    private void readFully(ByteBuffer destination, long position) throws IOException {
+        long readPosition = position;
+        while (destination.hasRemaining()) {
+            int readBytes = this.channel.read(destination, readPosition);
+            if (readBytes < 0)
+                throw new EOFException("The file ended at " + readPosition + ", before all of its data was read.");
+            readPosition += readBytes;
+        }
+    }
+}
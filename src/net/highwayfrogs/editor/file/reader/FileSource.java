@@ -48,4 +48,9 @@ public class FileSource implements DataSource {
     public int getSize() throws IOException {
         return this.fileData.length;
     }
+
+    @Override
+    public DataSource slice(int offset, int length) {
+        return new ArraySource(this.fileData, offset, length);
+    }
 }
@@ -0,0 +1,133 @@
+package net.highwayfrogs.editor.file.reader;
+
+import net.highwayfrogs.editor.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Turns a file into a data source, by mapping it into memory instead of copying it onto the heap.
+ * The operating system pages the file in as it is read, and the page cache can be shared between processes.
+ * Created by agent on 10/18/2026.
+ */
+public class MappedFileSource implements DataSource {
+    private final ByteBuffer buffer;
+
+    public MappedFileSource(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Cannot map '" + file.getName() + "', it is larger than 2GB.");
+
+            MappedByteBuffer mappedBuffer = channel.map(MapMode.READ_ONLY, 0, size); // The mapping remains valid after the channel is closed.
+            mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+            this.buffer = mappedBuffer;
+        }
+    }
+
+    private MappedFileSource(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        try {
+            return this.buffer.get();
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Tried to read past the end of the file.", ex);
+        }
+    }
+
+    @Override
+    public byte[] readBytes(int amount) throws IOException {
+        byte[] bytes = new byte[amount];
+        try {
+            this.buffer.get(bytes);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Tried to read " + amount + " bytes past the end of the file.", ex);
+        }
+        return bytes;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        try {
+            return this.buffer.getShort();
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Tried to read a short past the end of the file.", ex);
+        }
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        try {
+            return this.buffer.getInt();
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Tried to read an integer past the end of the file.", ex);
+        }
+    }
+
+    @Override
+    public void readShorts(short[] destination, int offset, int length) throws IOException {
+        try {
+            this.buffer.asShortBuffer().get(destination, offset, length);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Tried to read " + length + " shorts past the end of the file.", ex);
+        }
+        skip(length * Constants.SHORT_SIZE);
+    }
+
+    @Override
+    public void readInts(int[] destination, int offset, int length) throws IOException {
+        try {
+            this.buffer.asIntBuffer().get(destination, offset, length);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Tried to read " + length + " integers past the end of the file.", ex);
+        }
+        skip(length * Constants.INTEGER_SIZE);
+    }
+
+    @Override
+    public void skip(int byteCount) throws IOException {
+        setIndex(this.buffer.position() + byteCount);
+    }
+
+    @Override
+    public void setIndex(int newIndex) throws IOException {
+        try {
+            this.buffer.position(newIndex);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid index " + newIndex + ", the file size is " + this.buffer.limit() + ".", ex);
+        }
+    }
+
+    @Override
+    public int getIndex() throws IOException {
+        return this.buffer.position();
+    }
+
+    @Override
+    public int getSize() throws IOException {
+        return this.buffer.limit();
+    }
+
+    @Override
+    public DataSource slice(int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > this.buffer.limit())
+            throw new IOException("Cannot slice " + length + " bytes at " + offset + ", the file size is " + this.buffer.limit() + ".");
+
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        ByteBuffer slice = view.slice();
+        slice.order(ByteOrder.LITTLE_ENDIAN);
+        return new MappedFileSource(slice);
+    }
+}
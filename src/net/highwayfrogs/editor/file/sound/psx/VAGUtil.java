@@ -50,7 +50,7 @@ public class VAGUtil {
 
         DataReader reader = new DataReader(new ArraySource(vagAudioData));
 
-        ArrayReceiver dataReceiver = new ArrayReceiver();
+        ArrayReceiver dataReceiver = new ArrayReceiver(((vagAudioData.length / 16) * 28 * 2) + 44); // Each 16 byte VAG block decodes into 28 16-bit samples.
         DataWriter writer = new DataWriter(dataReceiver);
 
         // Write wav.
@@ -130,7 +130,7 @@ public class VAGUtil {
 
         DataReader reader = new DataReader(new ArraySource(wavBytes));
 
-        ArrayReceiver dataReceiver = new ArrayReceiver();
+        ArrayReceiver dataReceiver = new ArrayReceiver(((wavBytes.length / (28 * 2)) + 2) * 16); // Each 28 16-bit samples encode into a 16 byte VAG block.
         DataWriter writer = new DataWriter(dataReceiver);
 
         // Read wav file.
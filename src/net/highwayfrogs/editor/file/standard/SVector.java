@@ -10,6 +10,8 @@ import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.writer.DataWriter;
 import net.highwayfrogs.editor.utils.Utils;
 
+import java.util.List;
+
 /**
  * Vector comprised of shorts.
  * Created by Kneesnap on 8/22/2018.
@@ -175,6 +177,36 @@ public class SVector extends GameObject implements Vector {
         return vector;
     }
 
+    /**
+     * Load a number of SVectors with padding from a DataReader, reading all of their values at once.
+     * @param reader The data reader to read from.
+     * @param count  The amount of vectors to read.
+     * @param output The list to add the vectors to.
+     */
+    public static void readWithPadding(DataReader reader, int count, List<SVector> output) {
+        short[] values = reader.readShorts(new short[count * (PADDED_BYTE_SIZE / Constants.SHORT_SIZE)]);
+        for (int i = 0; i < values.length; i += (PADDED_BYTE_SIZE / Constants.SHORT_SIZE))
+            output.add(new SVector(values[i], values[i + 1], values[i + 2]));
+    }
+
+    /**
+     * Save a list of SVectors with padding, writing all of their values at once.
+     * @param writer  The writer to write data to.
+     * @param vectors The vectors to save.
+     */
+    public static void saveWithPadding(DataWriter writer, List<SVector> vectors) {
+        short[] values = new short[vectors.size() * (PADDED_BYTE_SIZE / Constants.SHORT_SIZE)];
+        for (int i = 0; i < vectors.size(); i++) {
+            SVector vector = vectors.get(i);
+            int index = i * (PADDED_BYTE_SIZE / Constants.SHORT_SIZE);
+            values[index] = vector.getX();
+            values[index + 1] = vector.getY();
+            values[index + 2] = vector.getZ();
+        }
+
+        writer.writeShorts(values);
+    }
+
     @Override
     public int hashCode() {
         return (this.x & 0xF800) + (this.z & 0x7C0) + (this.y & 0x3F);
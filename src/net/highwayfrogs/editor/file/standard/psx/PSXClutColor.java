@@ -123,6 +123,34 @@ public class PSXClutColor extends GameObject {
         return fromRGBA(array[index + 3], array[index + 2], array[index + 1], array[index]);
     }
 
+    /**
+     * Gets the 16bit short which an RGBA byte array color would be saved as, without creating a PSXClutColor.
+     * @param array The array to read RGBA bytes from.
+     * @param index The index to read color data from.
+     * @return shortValue
+     */
+    public static short toShort(byte[] array, int index) {
+        short writeValue = (short) (array[index] != Constants.NULL_BYTE ? STP_FLAG : 0);
+        writeValue |= (((array[index + 1] & 0xFF) >> TO_FULL_BYTE) << BLUE_OFFSET);
+        writeValue |= (((array[index + 2] & 0xFF) >> TO_FULL_BYTE) << GREEN_OFFSET);
+        writeValue |= (((array[index + 3] & 0xFF) >> TO_FULL_BYTE) << RED_OFFSET);
+        return writeValue;
+    }
+
+    /**
+     * Creates a PSXClutColor from a 16bit short.
+     * @param value The short to read from.
+     * @return clutColor
+     */
+    public static PSXClutColor fromShort(short value) {
+        PSXClutColor color = new PSXClutColor();
+        color.blue = getByte(value, BLUE_OFFSET);
+        color.green = getByte(value, GREEN_OFFSET);
+        color.red = getByte(value, RED_OFFSET);
+        color.stp = (value & STP_FLAG) == STP_FLAG;
+        return color;
+    }
+
     /**
      * Reads a PSXClutColor from a 16bit short into an RGBA int.
      * @param color The short to read from.
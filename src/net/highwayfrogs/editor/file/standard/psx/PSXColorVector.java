@@ -246,7 +246,7 @@ public class PSXColorVector extends GameObject {
             graphics.dispose();
         }
 
-        ImageView preview = new ImageView(Utils.toFXImage(applyImage, false));
+        ImageView preview = new ImageView(Utils.toFXImage(applyImage));
         preview.setOnMouseClicked(evt ->
                 InputMenu.promptInput("Please enter the color value you'd like to use.", Integer.toHexString(toRGB()), newText -> {
                     int colorRGB;
@@ -272,7 +272,7 @@ public class PSXColorVector extends GameObject {
                 }));
 
         imageUpdate[0] = () ->
-                preview.setImage(Utils.toFXImage(MAPPolyTexture.makeFlatShadedTexture(applyImage, Utils.fromRGB(toRGB()), fullRange), false));
+                preview.setImage(Utils.toFXImage(MAPPolyTexture.makeFlatShadedTexture(applyImage, Utils.fromRGB(toRGB()), fullRange)));
         imageUpdate[0].run();
 
         previewBox.getChildren().addAll(labelFont(label, useFont), preview);
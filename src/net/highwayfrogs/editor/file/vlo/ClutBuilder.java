@@ -0,0 +1,276 @@
+package net.highwayfrogs.editor.file.vlo;
+
+import lombok.Getter;
+import net.highwayfrogs.editor.Constants;
+import net.highwayfrogs.editor.file.standard.psx.PSXClutColor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Builds the clut (palette) for a PS1 image, and the clut index of each of its pixels.
+ * Colors are handled as the 16bit shorts they are saved as, and looked up with a primitive hash map instead of searching the clut.
+ * If the image has more colors than the clut can hold, the colors are reduced with median cut quantization.
+ * Created by agent on 10/18/2026.
+ */
+@Getter
+public class ClutBuilder {
+    private final short[] colors; // The clut colors, sorted in the order they are saved.
+    private final int[] pixelIndices; // The clut index of each pixel.
+    private final int originalColorCount;
+
+    private static final int CHANNEL_COUNT = 3;
+    private static final int CHANNEL_BITS = 5;
+    private static final int CHANNEL_MASK = (1 << CHANNEL_BITS) - 1;
+    private static final int STP_FLAG = Constants.BIT_FLAG_15;
+    private static final int MAX_UNIQUE_COLORS = 1 << (Constants.BITS_PER_BYTE * Constants.SHORT_SIZE);
+    private static final int GROUP_COUNT = 3; // Transparent, semi-transparent and solid colors.
+
+    private ClutBuilder(short[] colors, int[] pixelIndices, int originalColorCount) {
+        this.colors = colors;
+        this.pixelIndices = pixelIndices;
+        this.originalColorCount = originalColorCount;
+    }
+
+    /**
+     * Test if the colors of the image were reduced to fit in the clut.
+     * @return isQuantized
+     */
+    public boolean isQuantized() {
+        return this.originalColorCount > this.colors.length;
+    }
+
+    /**
+     * Writes the clut color of every pixel to image bytes, so the image shows the colors it will be saved with.
+     * @param imageBytes The image bytes to write to. These are expected to be the bytes the clut was built from.
+     */
+    public void applyTo(byte[] imageBytes) {
+        int[] rgbaColors = new int[this.colors.length];
+        for (int i = 0; i < rgbaColors.length; i++)
+            rgbaColors[i] = PSXClutColor.readColorFromShort(this.colors[i]);
+
+        ByteBuffer buffer = ByteBuffer.wrap(imageBytes);
+        for (int i = 0; i < this.pixelIndices.length; i++)
+            buffer.putInt(i * Constants.INTEGER_SIZE, rgbaColors[this.pixelIndices[i]]);
+    }
+
+    /**
+     * Builds a clut for image bytes, reducing the colors if there are more than the clut can hold.
+     * @param imageBytes The image bytes, four bytes per pixel, as GameImage stores them.
+     * @param maxColors  The amount of colors the clut can hold.
+     * @return clutBuilder
+     */
+    public static ClutBuilder build(byte[] imageBytes, int maxColors) {
+        int pixelCount = imageBytes.length / Constants.INTEGER_SIZE;
+        int[] pixelIndices = new int[pixelCount];
+
+        // Find the unique colors, and how many pixels use each of them.
+        ColorIndexMap indexMap = new ColorIndexMap(Math.min(pixelCount, MAX_UNIQUE_COLORS));
+        short[] uniqueColors = new short[Math.min(pixelCount, MAX_UNIQUE_COLORS)];
+        int[] pixelCounts = new int[uniqueColors.length];
+        int uniqueCount = 0;
+        for (int i = 0; i < pixelCount; i++) {
+            short color = PSXClutColor.toShort(imageBytes, i * Constants.INTEGER_SIZE);
+            int index = indexMap.get(color);
+            if (index == -1) {
+                index = uniqueCount++;
+                indexMap.put(color, index);
+                uniqueColors[index] = color;
+            }
+
+            pixelCounts[index]++;
+            pixelIndices[i] = index;
+        }
+
+        // Pick the clut colors, and which clut color each unique color becomes.
+        short[] clutColors;
+        int[] uniqueToClut = new int[uniqueCount];
+        if (uniqueCount <= maxColors) {
+            clutColors = Arrays.copyOf(uniqueColors, uniqueCount);
+            for (int i = 0; i < uniqueCount; i++)
+                uniqueToClut[i] = i;
+        } else {
+            clutColors = medianCut(uniqueColors, pixelCounts, uniqueCount, maxColors, uniqueToClut);
+        }
+
+        // Sort the clut the same way it has always been saved.
+        long[] sortKeys = new long[clutColors.length];
+        for (int i = 0; i < sortKeys.length; i++)
+            sortKeys[i] = ((long) PSXClutColor.readColorFromShort(clutColors[i]) << Integer.SIZE) | i;
+        Arrays.sort(sortKeys);
+
+        short[] sortedColors = new short[clutColors.length];
+        int[] newClutIndices = new int[clutColors.length];
+        for (int i = 0; i < sortKeys.length; i++) {
+            int oldIndex = (int) sortKeys[i];
+            sortedColors[i] = clutColors[oldIndex];
+            newClutIndices[oldIndex] = i;
+        }
+
+        for (int i = 0; i < pixelCount; i++)
+            pixelIndices[i] = newClutIndices[uniqueToClut[pixelIndices[i]]];
+
+        return new ClutBuilder(sortedColors, pixelIndices, uniqueCount);
+    }
+
+    // Reduces colors to the given amount by splitting them into boxes along their widest color channel, at the pixel-weighted median.
+    // Transparent, semi-transparent and solid colors are never put in the same box, since they are drawn differently.
+    private static short[] medianCut(short[] uniqueColors, int[] pixelCounts, int uniqueCount, int maxColors, int[] uniqueToClut) {
+        int[] order = new int[uniqueCount]; // Unique color indices, ordered so each box is a contiguous range.
+        int[] boxStart = new int[maxColors];
+        int[] boxEnd = new int[maxColors];
+        int[] boxAxis = new int[maxColors];
+        int[] boxRange = new int[maxColors];
+        int boxCount = 0;
+        int orderIndex = 0;
+        for (int group = 0; group < GROUP_COUNT; group++) {
+            int groupStart = orderIndex;
+            for (int i = 0; i < uniqueCount; i++)
+                if (getGroup(uniqueColors[i]) == group)
+                    order[orderIndex++] = i;
+
+            if (orderIndex > groupStart)
+                boxCount = addBox(uniqueColors, order, boxStart, boxEnd, boxAxis, boxRange, boxCount, groupStart, orderIndex);
+        }
+
+        long[] sortKeys = new long[uniqueCount];
+        while (boxCount < maxColors) {
+            int splitBox = -1;
+            for (int i = 0; i < boxCount; i++)
+                if (boxEnd[i] - boxStart[i] > 1 && (splitBox == -1 || boxRange[i] > boxRange[splitBox]))
+                    splitBox = i;
+
+            if (splitBox == -1)
+                break; // Every box holds a single color.
+
+            // Sort the box along its widest channel.
+            int start = boxStart[splitBox];
+            int end = boxEnd[splitBox];
+            int axis = boxAxis[splitBox];
+            long totalPixels = 0;
+            for (int i = start; i < end; i++) {
+                sortKeys[i] = ((long) getChannel(uniqueColors[order[i]], axis) << Integer.SIZE) | order[i];
+                totalPixels += pixelCounts[order[i]];
+            }
+
+            Arrays.sort(sortKeys, start, end);
+            for (int i = start; i < end; i++)
+                order[i] = (int) sortKeys[i];
+
+            // Split where half of the pixels are on each side, keeping at least one color in each box.
+            int split = start + 1;
+            long pixelsBefore = pixelCounts[order[start]];
+            while (split < end - 1 && pixelsBefore * 2 < totalPixels)
+                pixelsBefore += pixelCounts[order[split++]];
+
+            addBox(uniqueColors, order, boxStart, boxEnd, boxAxis, boxRange, splitBox, start, split);
+            boxCount = addBox(uniqueColors, order, boxStart, boxEnd, boxAxis, boxRange, boxCount, split, end);
+        }
+
+        // Each box becomes the pixel-weighted average of its colors.
+        short[] clutColors = new short[boxCount];
+        for (int box = 0; box < boxCount; box++) {
+            long[] channelTotals = new long[CHANNEL_COUNT];
+            long totalPixels = 0;
+            int mostUsedIndex = order[boxStart[box]];
+            for (int i = boxStart[box]; i < boxEnd[box]; i++) {
+                int uniqueIndex = order[i];
+                for (int axis = 0; axis < CHANNEL_COUNT; axis++)
+                    channelTotals[axis] += (long) getChannel(uniqueColors[uniqueIndex], axis) * pixelCounts[uniqueIndex];
+                totalPixels += pixelCounts[uniqueIndex];
+                uniqueToClut[uniqueIndex] = box;
+                if (pixelCounts[uniqueIndex] > pixelCounts[mostUsedIndex])
+                    mostUsedIndex = uniqueIndex;
+            }
+
+            int color = uniqueColors[order[boxStart[box]]] & STP_FLAG;
+            for (int axis = 0; axis < CHANNEL_COUNT; axis++)
+                color |= (int) ((channelTotals[axis] + (totalPixels / 2)) / totalPixels) << (axis * CHANNEL_BITS);
+            if (color == 0 && getGroup(uniqueColors[mostUsedIndex]) != 0)
+                color = uniqueColors[mostUsedIndex]; // Dark colors must not average out to the transparent color.
+            clutColors[box] = (short) color;
+        }
+
+        return clutColors;
+    }
+
+    // Sets a box to a range of colors, and finds its widest channel. Returns the new box count if the box was added to the end.
+    private static int addBox(short[] uniqueColors, int[] order, int[] boxStart, int[] boxEnd, int[] boxAxis, int[] boxRange, int box, int start, int end) {
+        int bestAxis = 0;
+        int bestRange = -1;
+        for (int axis = 0; axis < CHANNEL_COUNT; axis++) {
+            int min = CHANNEL_MASK;
+            int max = 0;
+            for (int i = start; i < end; i++) {
+                int value = getChannel(uniqueColors[order[i]], axis);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+
+            if (max - min > bestRange) {
+                bestRange = max - min;
+                bestAxis = axis;
+            }
+        }
+
+        boxStart[box] = start;
+        boxEnd[box] = end;
+        boxAxis[box] = bestAxis;
+        boxRange[box] = bestRange;
+        return box + 1;
+    }
+
+    // Color 0 is transparent on the PS1, so it is kept apart from the colors which are drawn.
+    private static int getGroup(short color) {
+        if (color == 0)
+            return 0;
+        return (color & STP_FLAG) == STP_FLAG ? 1 : 2;
+    }
+
+    private static int getChannel(short color, int axis) {
+        return (color >> (axis * CHANNEL_BITS)) & CHANNEL_MASK;
+    }
+
+    /**
+     * An open-addressing hash map from a 16bit color to its index, which avoids boxing either of them.
+     */
+    private static class ColorIndexMap {
+        private final int[] keys;
+        private final int[] values;
+        private final int mask;
+        private final int shift;
+
+        public ColorIndexMap(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 2 - 1)) << 1; // Keep the map at most half full.
+            this.keys = new int[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+            this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+            Arrays.fill(this.keys, -1);
+        }
+
+        public int get(short color) {
+            int key = color & 0xFFFF;
+            for (int slot = hash(key); ; slot = (slot + 1) & this.mask) {
+                if (this.keys[slot] == key)
+                    return this.values[slot];
+                if (this.keys[slot] == -1)
+                    return -1;
+            }
+        }
+
+        public void put(short color, int value) {
+            int key = color & 0xFFFF;
+            int slot = hash(key);
+            while (this.keys[slot] != -1 && this.keys[slot] != key)
+                slot = (slot + 1) & this.mask;
+
+            this.keys[slot] = key;
+            this.values[slot] = value;
+        }
+
+        private int hash(int key) {
+            return (key * 0x9E3779B1) >>> this.shift; // Fibonacci hashing spreads similar colors across the map.
+        }
+    }
+}
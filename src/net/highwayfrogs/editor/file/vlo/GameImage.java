@@ -8,21 +8,21 @@ import lombok.SneakyThrows;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.GameObject;
 import net.highwayfrogs.editor.file.map.view.TextureMap;
+import net.highwayfrogs.editor.file.map.view.TextureMap.TextureKey;
 import net.highwayfrogs.editor.file.map.view.TextureMap.TextureSource;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.standard.psx.PSXClutColor;
 import net.highwayfrogs.editor.file.vlo.ImageWorkHorse.BlackFilter;
 import net.highwayfrogs.editor.file.writer.DataWriter;
+import net.highwayfrogs.editor.system.LRUCache;
 import net.highwayfrogs.editor.utils.Utils;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.IntBuffer;
-import java.util.Arrays;
-import java.util.Comparator;
 
 /**
  * A singular game image. MR_TXSETUP struct.
@@ -49,6 +49,11 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
     private transient int tempSaveImageDataPointer;
     private transient BufferedImage cachedImage;
 
+    private static final long FX_IMAGE_CACHE_SIZE = 64 * 1024 * 1024; // The maximum amount of pixel data to keep in converted FX images.
+    private static final LRUCache<FXImageKey, Image> fxImageCache = new LRUCache<>(FX_IMAGE_CACHE_SIZE,
+            image -> (long) image.getWidth() * (long) image.getHeight() * Constants.INTEGER_SIZE);
+    private static final ReferenceQueue<Object> fxImageKeyQueue = new ReferenceQueue<>(); // Receives the images and settings of cached FX images once they are no longer used.
+
     public static final int MAX_DIMENSION = 256;
     private static final int PC_BYTES_PER_PIXEL = 4;
     public static final int PC_PAGE_WIDTH = 256;
@@ -112,16 +117,19 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
             ByteBuffer buffer = ByteBuffer.allocate(PC_BYTES_PER_PIXEL * pixelCount);
 
             if (getClutMode() == ImageClutMode.MODE_15BIT_NO_CLUT) { // Used in PS1 demo. Example: Frogger's eye, VOL@35 (The fireball texture)
+                short[] pixels = reader.readShorts(new short[pixelCount]);
                 for (int i = 0; i < pixelCount; i++)
-                    buffer.putInt(PSXClutColor.readColorFromShort(reader.readShort()));
+                    buffer.putInt(PSXClutColor.readColorFromShort(pixels[i]));
             } else if (getClutMode() == ImageClutMode.MODE_8BIT) { // Used in PS1 release. Example: STARTNTSC.VLO
                 ClutEntry clut = getClut();
+                byte[] pixels = reader.readBytes(pixelCount);
                 for (int i = 0; i < pixelCount; i++)
-                    readPSXPixel(reader.readUnsignedByteAsShort(), clut, buffer);
+                    readPSXPixel(pixels[i] & 0xFF, clut, buffer);
             } else { // 4bit (normal) mode.
                 ClutEntry clut = getClut();
+                byte[] pixels = reader.readBytes(pixelCount / 2);
                 for (int i = 0; i < pixelCount / 2; i++) { // We read two pixels per iteration.
-                    short value = reader.readUnsignedByteAsShort();
+                    int value = pixels[i] & 0xFF;
                     int low = value & 0x0F;
                     int high = value >> 4;
 
@@ -187,29 +195,26 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
         }
 
         ClutEntry clut = getClut();
-        clut.getColors().clear(); // Generate a new clut.
-        int maxColors = getClut().calculateColorCount();
-
-        for (int i = 0; i < getImageBytes().length; i += PC_BYTES_PER_PIXEL) {
-            PSXClutColor color = PSXClutColor.fromRGBA(this.imageBytes, i);
-            if (!clut.getColors().contains(color))
-                clut.getColors().add(color);
-        }
+        int maxColors = clut.calculateColorCount();
+        ClutBuilder clutBuilder = ClutBuilder.build(getImageBytes(), maxColors);
+        if (clutBuilder.isQuantized())
+            System.out.println("Reduced the colors of texture " + getTextureId() + " from " + clutBuilder.getOriginalColorCount() + " to " + maxColors + " to fit its clut.");
 
-        if (clut.getColors().size() > maxColors)
-            throw new RuntimeException("Tried to save a PSX image with too many colors. [Max: " + maxColors + ", Colors: " + clut.getColors().size() + "]");
-
-        clut.getColors().sort(Comparator.comparingInt(PSXClutColor::toRGBA));
+        clut.getColors().clear(); // Generate a new clut.
+        for (short color : clutBuilder.getColors())
+            clut.getColors().add(PSXClutColor.fromShort(color));
 
+        int[] pixelIndices = clutBuilder.getPixelIndices();
         if (getClutMode() == ImageClutMode.MODE_8BIT) {
-            for (int i = 0; i < getImageBytes().length; i += PC_BYTES_PER_PIXEL)
-                writer.writeByte((byte) clut.getColors().indexOf(PSXClutColor.fromRGBA(this.imageBytes, i)));
+            byte[] pixelBytes = new byte[pixelIndices.length];
+            for (int i = 0; i < pixelIndices.length; i++)
+                pixelBytes[i] = (byte) pixelIndices[i];
+            writer.writeBytes(pixelBytes);
         } else if (getClutMode() == ImageClutMode.MODE_4BIT) {
-            for (int i = 0; i < getImageBytes().length; i += (PC_BYTES_PER_PIXEL * 2)) {
-                PSXClutColor color1 = PSXClutColor.fromRGBA(this.imageBytes, i);
-                PSXClutColor color2 = PSXClutColor.fromRGBA(this.imageBytes, i + PC_BYTES_PER_PIXEL);
-                writer.writeByte((byte) (clut.getColors().indexOf(color1) | (clut.getColors().indexOf(color2) << 4)));
-            }
+            byte[] pixelBytes = new byte[pixelIndices.length / 2];
+            for (int i = 0; i < pixelBytes.length; i++)
+                pixelBytes[i] = (byte) (pixelIndices[i * 2] | (pixelIndices[(i * 2) + 1] << 4));
+            writer.writeBytes(pixelBytes);
         } else {
             throw new RuntimeException("Could not handle clut mode: " + getClutMode());
         }
@@ -321,7 +326,10 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
             this.flags |= flag;
         }
 
-        return flag == FLAG_BLACK_IS_TRANSPARENT || flag == FLAG_HIT_X;
+        boolean invalidateImage = (flag == FLAG_BLACK_IS_TRANSPARENT || flag == FLAG_HIT_X);
+        if (invalidateImage)
+            invalidateCache(); // Filtered images depend on these flags.
+        return invalidateImage;
     }
 
     /**
@@ -350,6 +358,7 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
             Utils.makePopUp("The image you have imported is larger than the image it replaced.\nThis may cause problems if it overlaps with another texture. Click on the 'VRAM' option to make sure the texture is ok.", AlertType.WARNING);
 
         if (getFullWidth() != imageWidth || getFullHeight() != imageHeight) {
+            getParent().markVRAMDirty(this); // The old area needs to be redrawn too.
             this.fullWidth = imageWidth;
             this.fullHeight = imageHeight;
             setIngameWidth((short) (imageWidth - 2));
@@ -374,6 +383,16 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
             this.imageBytes[i + 3] = temp;
         }
 
+        // PS1 images which use a clut can only have as many colors as the clut holds, so reduce the colors of images which have too many.
+        if (getParent().isPsxMode() && getClutMode() != ImageClutMode.MODE_15BIT_NO_CLUT) {
+            int maxColors = getClut().calculateColorCount();
+            ClutBuilder clutBuilder = ClutBuilder.build(this.imageBytes, maxColors);
+            if (clutBuilder.isQuantized()) {
+                clutBuilder.applyTo(this.imageBytes);
+                Utils.makePopUp("The imported image has " + clutBuilder.getOriginalColorCount() + " colors, but this image can only have " + maxColors + ".\nThe colors have been reduced to fit.", AlertType.WARNING);
+            }
+        }
+
         invalidateCache();
     }
 
@@ -382,40 +401,60 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
      */
     public void invalidateCache() {
         this.cachedImage = null;
+        fxImageCache.removeIf(key -> key.getImage() == this);
+        if (getParent() != null)
+            getParent().markVRAMDirty(this);
     }
 
     /**
-     * Export this image exactly how it is saved in the database.
-     * @return bufferedImage
+     * Gets the cache of converted FX images, which tracks how often images are reused.
+     * @return fxImageCache
      */
-    public BufferedImage toBufferedImage() {
-        if (this.cachedImage != null)
-            return this.cachedImage;
+    public static LRUCache<?, Image> getFXImageCache() {
+        return fxImageCache;
+    }
 
-        int height = getFullHeight();
-        int width = getFullWidth();
+    /**
+     * Invalidate the FX images made with certain filter settings, such as when the settings change.
+     * @param settings The settings to invalidate images for.
+     */
+    static void invalidateFXImages(ImageFilterSettings settings) {
+        fxImageCache.removeIf(key -> key.getSettings() == settings);
+    }
 
-        byte[] cloneBytes = Arrays.copyOf(getImageBytes(), getImageBytes().length); // We don't want to make changes to the original array.
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    // Removes the cached FX images whose image or settings are no longer used, such as the settings of a closed editor.
+    private static void removeUnusedFXImages() {
+        if (fxImageKeyQueue.poll() == null)
+            return;
 
-        //ABGR -> BGRA
-        for (int temp = 0; temp < cloneBytes.length; temp += PC_BYTES_PER_PIXEL) {
-            byte alpha = cloneBytes[temp];
-            int alphaIndex = temp + PC_BYTES_PER_PIXEL - 1;
-            System.arraycopy(cloneBytes, temp + 1, cloneBytes, temp, alphaIndex - temp);
-            cloneBytes[alphaIndex] = (byte) (0xFF - alpha); // Alpha needs to be flipped.
+        // A single pass over the cache removes every unused key, so the rest of the queue is emptied first.
+        while (fxImageKeyQueue.poll() != null) {
         }
 
-        IntBuffer buffer = ByteBuffer.wrap(cloneBytes)
-                .order(ByteOrder.LITTLE_ENDIAN)
-                .asIntBuffer();
+        fxImageCache.removeIf(FXImageKey::isUnused);
+    }
 
-        int[] array = new int[buffer.remaining()];
-        buffer.get(array);
-        image.setRGB(0, 0, image.getWidth(), image.getHeight(), array, 0, image.getWidth());
+    /**
+     * Export this image exactly how it is saved in the database.
+     * @return bufferedImage
+     */
+    public BufferedImage toBufferedImage() {
+        if (this.cachedImage != null)
+            return this.cachedImage;
+
+        BufferedImage image = new BufferedImage(getFullWidth(), getFullHeight(), BufferedImage.TYPE_INT_ARGB);
+        readPixels(Utils.getPixelArray(image)); // Write straight into the image's pixel array.
         return this.cachedImage = image;
     }
 
+    // Converts the image bytes into ARGB pixels. Each pixel is saved as (255 - alpha), blue, green, red.
+    private void readPixels(int[] pixels) {
+        byte[] bytes = getImageBytes();
+        for (int i = 0, byteIndex = 0; i < pixels.length; i++, byteIndex += PC_BYTES_PER_PIXEL)
+            pixels[i] = ((0xFF - (bytes[byteIndex] & 0xFF)) << 24) | ((bytes[byteIndex + 3] & 0xFF) << 16)
+                    | ((bytes[byteIndex + 2] & 0xFF) << 8) | (bytes[byteIndex + 1] & 0xFF);
+    }
+
     /**
      * Export this game image as a BufferedImage.
      * @param settings The settings to export this image with.
@@ -431,7 +470,15 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
      * @return fxImage
      */
     public Image toFXImage(ImageFilterSettings settings) {
-        return Utils.toFXImage(toBufferedImage(settings), false);
+        FXImageKey key = new FXImageKey(this, settings);
+        Image fxImage = fxImageCache.get(key);
+        if (fxImage == null) {
+            removeUnusedFXImages();
+            fxImage = Utils.toFXImage(settings != null ? toBufferedImage(settings) : toBufferedImage());
+            fxImageCache.put(key, fxImage);
+        }
+
+        return fxImage;
     }
 
     /**
@@ -439,7 +486,7 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
      * @return fxImage
      */
     public Image toFXImage() {
-        return Utils.toFXImage(toBufferedImage(), false);
+        return toFXImage(null);
     }
 
     /**
@@ -528,12 +575,60 @@ public class GameImage extends GameObject implements Cloneable, TextureSource {
     }
 
     @Override
-    public BigInteger makeIdentifier(TextureMap map) {
-        return makeIdentifier(0x7E8BA5E, getTextureId());
+    public TextureKey makeIdentifier(TextureMap map) {
+        return TextureKey.of(TextureKey.KIND_TEXTURE, getTextureId());
     }
 
     @Override
     public GameImage getGameImage(TextureMap map) {
         return this;
     }
+
+    // The image and settings are weakly referenced, so the static cache doesn't keep editors and their filter settings alive.
+    private static final class FXImageKey {
+        private final WeakReference<GameImage> image;
+        private final WeakReference<ImageFilterSettings> settings;
+        private final boolean hasSettings;
+        private final int hash;
+
+        public FXImageKey(GameImage image, ImageFilterSettings settings) {
+            this.image = new WeakReference<>(image, fxImageKeyQueue);
+            this.settings = new WeakReference<>(settings, fxImageKeyQueue);
+            this.hasSettings = (settings != null);
+            this.hash = 31 * System.identityHashCode(image) + System.identityHashCode(settings);
+        }
+
+        public GameImage getImage() {
+            return this.image.get();
+        }
+
+        public ImageFilterSettings getSettings() {
+            return this.settings.get();
+        }
+
+        /**
+         * Tests if the image or settings of this key have been garbage collected, so it can never be used again.
+         * @return isUnused
+         */
+        public boolean isUnused() {
+            return getImage() == null || (this.hasSettings && getSettings() == null);
+        }
+
+        @Override
+        public boolean equals(Object other) { // Images and settings are mutable, so they are compared by identity.
+            if (other == this)
+                return true;
+            if (!(other instanceof FXImageKey))
+                return false;
+
+            FXImageKey otherKey = (FXImageKey) other;
+            return !isUnused() && this.hasSettings == otherKey.hasSettings
+                    && getImage() == otherKey.getImage() && getSettings() == otherKey.getSettings();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
 }
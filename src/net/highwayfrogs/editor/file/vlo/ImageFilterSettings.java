@@ -4,6 +4,7 @@ import lombok.Getter;
 import net.highwayfrogs.editor.file.vlo.ImageWorkHorse.TransparencyFilter;
 
 import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,7 +20,7 @@ public class ImageFilterSettings {
     private boolean allowFlip;
     private boolean allowScrunch;
     private boolean scaleToMaxSize;
-    private Map<BufferedImage, BufferedImage> renderCache = new HashMap<>();
+    private Map<BufferedImage, BufferedImage> renderCache = Collections.synchronizedMap(new HashMap<>()); // Images may be exported on multiple threads at once.
 
     public ImageFilterSettings(ImageState state) {
         this.state = state;
@@ -107,6 +108,7 @@ public class ImageFilterSettings {
      */
     public void invalidateRenderCache() {
         this.renderCache.clear();
+        GameImage.invalidateFXImages(this);
     }
 
     /**
@@ -120,6 +122,15 @@ public class ImageFilterSettings {
         if (result != null)
             return result;
 
+        BufferedImage image = FusedImageFilter.applyFilters(gameImage, firstImage, this);
+        if (image == null) // The image can't be filtered in one pass, so apply each filter separately.
+            image = applyFiltersSeparately(gameImage, firstImage);
+
+        this.renderCache.put(firstImage, image);
+        return image;
+    }
+
+    private BufferedImage applyFiltersSeparately(GameImage gameImage, BufferedImage firstImage) {
         BufferedImage image = firstImage;
         if (isTrimEdges() && isExport())
             image = ImageWorkHorse.trimEdges(gameImage, image);
@@ -137,7 +148,6 @@ public class ImageFilterSettings {
         if (transparencyGoal)
             image = ImageWorkHorse.applyFilter(image, new TransparencyFilter());
 
-        this.renderCache.put(firstImage, image);
         return image;
     }
 
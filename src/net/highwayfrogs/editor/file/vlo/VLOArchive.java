@@ -3,6 +3,7 @@ package net.highwayfrogs.editor.file.vlo;
 import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import net.highwayfrogs.editor.Constants;
@@ -26,8 +27,10 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * VLOArchive - Image archive format created by VorgPC/Vorg2.
@@ -40,6 +43,8 @@ public class VLOArchive extends GameFile {
     private List<GameImage> images = new ArrayList<>();
     private List<ClutEntry> clutEntries = new ArrayList<>();
     private boolean psxMode;
+    @Getter(AccessLevel.NONE) private transient BufferedImage vramImage; // Kept between edits, so only the pages which change need to be redrawn.
+    @Getter(AccessLevel.NONE) private transient boolean[] dirtyVramPages;
 
     private static final String PC_SIGNATURE = "2GRP";
     private static final String PSX_SIGNATURE = "2GRV";
@@ -152,7 +157,7 @@ public class VLOArchive extends GameFile {
     @Override
     @SneakyThrows
     public void exportAlternateFormat(FileEntry fileEntry) {
-        ImageIO.write(makeVRAMImage(), "png", new File(GUIMain.getWorkingDirectory(), Utils.stripExtension(fileEntry.getDisplayName()) + ".png"));
+        ImageIO.write(getVRAMImage(), "png", new File(GUIMain.getWorkingDirectory(), Utils.stripExtension(fileEntry.getDisplayName()) + ".png"));
         System.out.println("Exported VRAM Image.");
     }
 
@@ -245,6 +250,19 @@ public class VLOArchive extends GameFile {
         return isPsxMode() ? (GameImage.PSX_PAGE_HEIGHT * GameImage.PSX_Y_PAGES) : (GameImage.PC_PAGE_HEIGHT * GameImage.TOTAL_PAGES);
     }
 
+    private int getVramPageWidth() {
+        return isPsxMode() ? GameImage.PSX_FULL_PAGE_WIDTH : GameImage.PC_PAGE_WIDTH;
+    }
+
+    private int getVramPageHeight() {
+        return isPsxMode() ? GameImage.PSX_PAGE_HEIGHT : GameImage.PC_PAGE_HEIGHT;
+    }
+
+    // Gets the x coordinate an image is drawn at in the VRAM image. On the PS1, one pixel is drawn per byte of VRAM.
+    private int getVramImageX(GameImage image) {
+        return image.getVramX() * (isPsxMode() ? ((GameImage.PSX_FULL_PAGE_WIDTH / GameImage.PSX_PAGE_WIDTH) / image.getWidthMultiplier()) : 1);
+    }
+
     /**
      * Create a BufferedImage which effectively mirrors how Frogger will layout this VLO in memory.
      * One pixel maps to one byte of VRAM.
@@ -258,12 +276,96 @@ public class VLOArchive extends GameFile {
         if (vramImage == null || (calcWidth != vramImage.getWidth() || calcHeight != vramImage.getHeight()))
             vramImage = new BufferedImage(calcWidth, calcHeight, BufferedImage.TYPE_INT_ARGB);
 
-        // Draw on image.
         Graphics2D graphics = vramImage.createGraphics();
+        drawVRAMArea(graphics, new Rectangle(0, 0, calcWidth, calcHeight));
+        graphics.dispose(); // Cleanup.
+        return vramImage;
+    }
+
+    /**
+     * Gets a BufferedImage which mirrors how Frogger will layout this VLO in memory, like makeVRAMImage.
+     * The image is kept between calls, and only the texture pages which have been marked as dirty are redrawn.
+     * @return vramImage
+     */
+    public BufferedImage getVRAMImage() {
+        return getVRAMImage(null);
+    }
+
+    /**
+     * Gets a BufferedImage which mirrors how Frogger will layout this VLO in memory, like makeVRAMImage.
+     * The image is kept between calls, and only the texture pages which have been marked as dirty are redrawn.
+     * @param redrawnPageHandler Called with the id of each page which is redrawn. Can be null.
+     * @return vramImage
+     */
+    public synchronized BufferedImage getVRAMImage(IntConsumer redrawnPageHandler) {
+        if (this.vramImage == null || this.vramImage.getWidth() != getVramWidth() || this.vramImage.getHeight() != getVramHeight()) {
+            this.vramImage = null;
+            this.dirtyVramPages = new boolean[(getVramWidth() / getVramPageWidth()) * (getVramHeight() / getVramPageHeight())];
+            Arrays.fill(this.dirtyVramPages, true);
+        }
+
+        Graphics2D graphics = null;
+        int pageWidth = getVramPageWidth();
+        int pageHeight = getVramPageHeight();
+        int pagesPerRow = getVramWidth() / pageWidth;
+        for (int page = 0; page < this.dirtyVramPages.length; page++) {
+            if (!this.dirtyVramPages[page])
+                continue;
+
+            if (this.vramImage == null)
+                this.vramImage = new BufferedImage(getVramWidth(), getVramHeight(), BufferedImage.TYPE_INT_ARGB);
+            if (graphics == null)
+                graphics = this.vramImage.createGraphics();
+
+            drawVRAMArea(graphics, new Rectangle((page % pagesPerRow) * pageWidth, (page / pagesPerRow) * pageHeight, pageWidth, pageHeight));
+            this.dirtyVramPages[page] = false;
+            if (redrawnPageHandler != null)
+                redrawnPageHandler.accept(page);
+        }
+
+        if (graphics != null)
+            graphics.dispose();
+        return this.vramImage;
+    }
+
+    /**
+     * Marks the texture pages an image is drawn on as dirty, so they are redrawn the next time the VRAM image is requested.
+     * This should be called before and after an image is moved or resized, so both the old and new area get redrawn.
+     * @param image The image to mark.
+     */
+    public synchronized void markVRAMDirty(GameImage image) {
+        if (this.dirtyVramPages == null)
+            return; // The VRAM image hasn't been made yet, so everything will be drawn.
+
+        int pageWidth = getVramPageWidth();
+        int pageHeight = getVramPageHeight();
+        int pagesPerRow = getVramWidth() / pageWidth;
+        int pageRows = this.dirtyVramPages.length / pagesPerRow;
+
+        int startX = getVramImageX(image);
+        int startY = image.getVramY();
+        int endPageX = Math.min(pagesPerRow - 1, (startX + Math.max(1, image.getFullWidth()) - 1) / pageWidth);
+        int endPageY = Math.min(pageRows - 1, (startY + Math.max(1, image.getFullHeight()) - 1) / pageHeight);
+        for (int pageY = Math.max(0, startY / pageHeight); pageY <= endPageY; pageY++)
+            for (int pageX = Math.max(0, startX / pageWidth); pageX <= endPageX; pageX++)
+                this.dirtyVramPages[(pageY * pagesPerRow) + pageX] = true;
+    }
+
+    /**
+     * Marks every texture page as dirty, so the whole VRAM image is redrawn the next time it is requested.
+     */
+    public synchronized void markVRAMDirty() {
+        if (this.dirtyVramPages != null)
+            Arrays.fill(this.dirtyVramPages, true);
+    }
+
+    // Draws an area of the VRAM image. Anything outside of the area is left untouched.
+    private void drawVRAMArea(Graphics2D graphics, Rectangle area) {
+        graphics.setClip(area);
 
         // Fill background.
         graphics.setColor(Constants.COLOR_TURQUOISE);
-        graphics.fillRect(0, 0, vramImage.getWidth(), vramImage.getHeight());
+        graphics.fill(area);
 
         final int psxMultiple = (GameImage.PSX_FULL_PAGE_WIDTH / GameImage.PSX_PAGE_WIDTH);
         if (isPsxMode()) {
@@ -274,15 +376,21 @@ public class VLOArchive extends GameFile {
             graphics.fillRect(0, 240, 320 * psxMultiple, 240);
 
             // Draw cluts.
-            for (ClutEntry clutEntry : getClutEntries())
-                graphics.drawImage(clutEntry.makeImage(), null, clutEntry.getClutRect().getX() * psxMultiple, clutEntry.getClutRect().getY());
+            for (ClutEntry clutEntry : getClutEntries()) {
+                int clutX = clutEntry.getClutRect().getX() * psxMultiple;
+                int clutY = clutEntry.getClutRect().getY();
+                if (area.intersects(clutX, clutY, clutEntry.getClutRect().getWidth(), clutEntry.getClutRect().getHeight()))
+                    graphics.drawImage(clutEntry.makeImage(), null, clutX, clutY);
+            }
         }
 
         // Draw images.
-        for (GameImage image : getImages())
-            graphics.drawImage(image.toBufferedImage(VRAM_EXPORT_NO_SCRUNCH), null, image.getVramX() * (isPsxMode() ? (psxMultiple / image.getWidthMultiplier()) : 1), image.getVramY());
+        for (GameImage image : getImages()) {
+            int imageX = getVramImageX(image);
+            if (area.intersects(imageX, image.getVramY(), image.getFullWidth(), image.getFullHeight()))
+                graphics.drawImage(image.toBufferedImage(VRAM_EXPORT_NO_SCRUNCH), null, imageX, image.getVramY());
+        }
 
-        graphics.dispose(); // Cleanup.
-        return vramImage;
+        graphics.setClip(null);
     }
 }
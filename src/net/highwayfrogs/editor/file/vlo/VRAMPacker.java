@@ -0,0 +1,234 @@
+package net.highwayfrogs.editor.file.vlo;
+
+import lombok.Getter;
+
+import java.awt.*;
+import java.util.List;
+import java.util.*;
+
+/**
+ * Arranges the images of a VLO in VRAM, so they don't overlap each other, CLUTs, or the PS1 frame buffer.
+ * Each texture page keeps a list of the largest free rectangles (MaxRects), and images are placed where they leave the least space unused.
+ * Positions are in VRAM units. On the PS1 that is one 16bit VRAM word, which holds multiple pixels for 4bit and 8bit images.
+ * Created by agent on 10/18/2026.
+ */
+public class VRAMPacker {
+    private final VLOArchive vloArchive;
+    private final List<PackingPage> pages = new ArrayList<>();
+    private final Map<GameImage, Point> placements = new IdentityHashMap<>();
+    @Getter private final List<GameImage> unplacedImages = new ArrayList<>();
+
+    private static final int PSX_FRAME_BUFFER_WIDTH = 320;
+    private static final int PSX_FRAME_BUFFER_HEIGHT = 2 * 240; // There are two buffers, one for the frame being shown and one for the frame being drawn.
+
+    public VRAMPacker(VLOArchive vloArchive) {
+        this(vloArchive, getUsedPages(vloArchive));
+    }
+
+    public VRAMPacker(VLOArchive vloArchive, Collection<Integer> pageIds) {
+        this.vloArchive = vloArchive;
+
+        List<Rectangle> reservedAreas = new ArrayList<>();
+        if (vloArchive.isPsxMode()) {
+            reservedAreas.add(new Rectangle(0, 0, PSX_FRAME_BUFFER_WIDTH, PSX_FRAME_BUFFER_HEIGHT));
+            for (ClutEntry clutEntry : vloArchive.getClutEntries())
+                reservedAreas.add(new Rectangle(clutEntry.getClutRect().getX(), clutEntry.getClutRect().getY(), clutEntry.getClutRect().getWidth(), clutEntry.getClutRect().getHeight()));
+        }
+
+        for (int pageId : new TreeSet<>(pageIds)) {
+            PackingPage page = new PackingPage(pageId, getPageArea(vloArchive, pageId));
+            for (Rectangle reservedArea : reservedAreas)
+                page.reserve(reservedArea);
+            this.pages.add(page);
+        }
+    }
+
+    /**
+     * Finds a position for every image. The images are not moved until apply() is called.
+     * @return If every image was given a position.
+     */
+    public boolean pack() {
+        List<GameImage> images = new ArrayList<>(this.vloArchive.getImages());
+        images.sort(Comparator.<GameImage>comparingInt(image -> Math.max(getVramWidth(image), image.getFullHeight()))
+                .thenComparingInt(image -> getVramWidth(image) * image.getFullHeight()).reversed()); // Placing large images first leaves fewer gaps.
+
+        for (GameImage image : images) {
+            int width = getVramWidth(image);
+            int height = image.getFullHeight();
+
+            Point position = null;
+            for (PackingPage page : this.pages) { // Use the first page the image fits on, so images are kept on as few pages as possible.
+                position = page.place(width, height);
+                if (position != null)
+                    break;
+            }
+
+            if (position != null) {
+                this.placements.put(image, position);
+            } else {
+                this.unplacedImages.add(image);
+            }
+        }
+
+        return this.unplacedImages.isEmpty();
+    }
+
+    /**
+     * Moves the images to the positions found by pack().
+     */
+    public void apply() {
+        for (Map.Entry<GameImage, Point> entry : this.placements.entrySet()) {
+            GameImage image = entry.getKey();
+            Point position = entry.getValue();
+            this.vloArchive.markVRAMDirty(image);
+            image.setVramX((short) (position.x * image.getWidthMultiplier()));
+            image.setVramY((short) position.y);
+            this.vloArchive.markVRAMDirty(image);
+        }
+    }
+
+    /**
+     * Gets how much of each page's usable space the packed images take up.
+     * @return pageUtilization, from 0 to 1, by page id.
+     */
+    public Map<Integer, Double> getPageUtilization() {
+        Map<Integer, Double> utilization = new TreeMap<>();
+        for (PackingPage page : this.pages)
+            utilization.put(page.getPageId(), page.getUsableArea() > 0 ? (double) page.getUsedArea() / page.getUsableArea() : 1D);
+        return utilization;
+    }
+
+    /**
+     * Gets the area an image takes up in VRAM, in VRAM units.
+     * @param image The image to get the area of.
+     * @return vramArea
+     */
+    public static Rectangle getVramArea(GameImage image) {
+        return new Rectangle(image.getVramX() / image.getWidthMultiplier(), image.getVramY(), getVramWidth(image), image.getFullHeight());
+    }
+
+    /**
+     * Gets the area a texture page takes up in VRAM, in VRAM units.
+     * @param vloArchive The VLO the page is for.
+     * @param pageId     The page to get the area of.
+     * @return pageArea
+     */
+    public static Rectangle getPageArea(VLOArchive vloArchive, int pageId) {
+        if (vloArchive.isPsxMode())
+            return new Rectangle((pageId % GameImage.PSX_X_PAGES) * GameImage.PSX_PAGE_WIDTH, (pageId / GameImage.PSX_X_PAGES) * GameImage.PSX_PAGE_HEIGHT, GameImage.PSX_PAGE_WIDTH, GameImage.PSX_PAGE_HEIGHT);
+        return new Rectangle(0, pageId * GameImage.PC_PAGE_HEIGHT, GameImage.PC_PAGE_WIDTH, GameImage.PC_PAGE_HEIGHT);
+    }
+
+    // Gets the width of an image in VRAM units. An image which doesn't fill its last VRAM word still takes up all of it.
+    private static int getVramWidth(GameImage image) {
+        int widthMultiplier = image.getWidthMultiplier();
+        return (image.getFullWidth() + widthMultiplier - 1) / widthMultiplier;
+    }
+
+    private static Set<Integer> getUsedPages(VLOArchive vloArchive) {
+        Set<Integer> usedPages = new TreeSet<>();
+        for (GameImage image : vloArchive.getImages())
+            usedPages.add((int) image.getMultiplierPage());
+        return usedPages;
+    }
+
+    @Getter
+    private static class PackingPage {
+        private final int pageId;
+        private final Rectangle pageArea;
+        private final List<Rectangle> freeAreas = new ArrayList<>(); // The largest empty rectangles. These overlap each other.
+        private long usableArea;
+        private long usedArea;
+
+        public PackingPage(int pageId, Rectangle pageArea) {
+            this.pageId = pageId;
+            this.pageArea = pageArea;
+            this.freeAreas.add(pageArea);
+            this.usableArea = (long) pageArea.width * pageArea.height;
+        }
+
+        /**
+         * Marks an area as unusable.
+         * @param area The area to reserve.
+         */
+        public void reserve(Rectangle area) {
+            Rectangle reservedPart = this.pageArea.intersection(area);
+            if (reservedPart.isEmpty())
+                return;
+
+            this.usableArea -= (long) reservedPart.width * reservedPart.height; // CLUTs are small and don't overlap, so this is accurate enough for reporting.
+            splitFreeAreas(reservedPart);
+        }
+
+        /**
+         * Finds the best position for a rectangle, and marks it as used.
+         * @param width  The width of the rectangle.
+         * @param height The height of the rectangle.
+         * @return position, or null if it does not fit.
+         */
+        public Point place(int width, int height) {
+            Rectangle best = null;
+            int bestShortSide = Integer.MAX_VALUE;
+            int bestLongSide = Integer.MAX_VALUE;
+            for (Rectangle freeArea : this.freeAreas) {
+                if (width > freeArea.width || height > freeArea.height)
+                    continue;
+
+                int leftoverX = freeArea.width - width;
+                int leftoverY = freeArea.height - height;
+                int shortSide = Math.min(leftoverX, leftoverY);
+                int longSide = Math.max(leftoverX, leftoverY);
+                if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+                    best = freeArea;
+                    bestShortSide = shortSide;
+                    bestLongSide = longSide;
+                }
+            }
+
+            if (best == null)
+                return null;
+
+            Rectangle placedArea = new Rectangle(best.x, best.y, width, height);
+            splitFreeAreas(placedArea);
+            this.usedArea += (long) width * height;
+            return placedArea.getLocation();
+        }
+
+        // Removes a used area from the free areas, replacing each free area it overlaps with the (up to four) largest rectangles around it.
+        private void splitFreeAreas(Rectangle usedArea) {
+            List<Rectangle> newAreas = new ArrayList<>();
+            Iterator<Rectangle> iterator = this.freeAreas.iterator();
+            while (iterator.hasNext()) {
+                Rectangle freeArea = iterator.next();
+                if (!freeArea.intersects(usedArea))
+                    continue;
+
+                iterator.remove();
+                if (usedArea.x > freeArea.x) // Left.
+                    newAreas.add(new Rectangle(freeArea.x, freeArea.y, usedArea.x - freeArea.x, freeArea.height));
+                if (usedArea.x + usedArea.width < freeArea.x + freeArea.width) // Right.
+                    newAreas.add(new Rectangle(usedArea.x + usedArea.width, freeArea.y, (freeArea.x + freeArea.width) - (usedArea.x + usedArea.width), freeArea.height));
+                if (usedArea.y > freeArea.y) // Top.
+                    newAreas.add(new Rectangle(freeArea.x, freeArea.y, freeArea.width, usedArea.y - freeArea.y));
+                if (usedArea.y + usedArea.height < freeArea.y + freeArea.height) // Bottom.
+                    newAreas.add(new Rectangle(freeArea.x, usedArea.y + usedArea.height, freeArea.width, (freeArea.y + freeArea.height) - (usedArea.y + usedArea.height)));
+            }
+
+            // Areas which are inside of another free area are redundant.
+            for (Rectangle newArea : newAreas) {
+                boolean redundant = false;
+                for (Rectangle freeArea : this.freeAreas) {
+                    if (freeArea.contains(newArea)) {
+                        redundant = true;
+                        break;
+                    }
+                }
+
+                if (!redundant) {
+                    this.freeAreas.removeIf(newArea::contains);
+                    this.freeAreas.add(newArea);
+                }
+            }
+        }
+    }
+}
@@ -1,47 +1,54 @@
 package net.highwayfrogs.editor.file.writer;
 
 import lombok.Getter;
-import net.highwayfrogs.editor.Constants;
-import net.highwayfrogs.editor.utils.Utils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * An in-memory data receiver.
+ * Data is stored in a growable byte array, so writes do not box every byte.
  * Created by Kneesnap on 8/13/2018.
  */
-@Getter
 public class ArrayReceiver implements DataReceiver {
-    private List<Byte> bytes;
-    private int index;
+    private byte[] bytes;
+    @Getter private int size;
+    @Getter private int index;
+
+    private static final int DEFAULT_CAPACITY = 1024;
 
     public ArrayReceiver() {
-        this.bytes = new ArrayList<>();
+        this(DEFAULT_CAPACITY);
     }
 
     public ArrayReceiver(int startingSize) {
-        this.bytes = new ArrayList<>(startingSize);
+        this.bytes = new byte[Math.max(1, startingSize)];
     }
 
     @Override
-    public void writeByte(byte value)  {
-        while (this.index > bytes.size()) // Add data up to the index.
-            bytes.add(Constants.NULL_BYTE);
-
-        if (bytes.size() > this.index) { // Writing over existing bytes.
-            bytes.set(this.index, value);
-        } else { // Index matches exactly. Append at end.
-            bytes.add(value);
-        }
-
-        this.index++; // Increment index.
+    public void writeByte(byte value) {
+        ensureCapacity(this.index + 1);
+        this.bytes[this.index++] = value;
+        if (this.index > this.size)
+            this.size = this.index;
     }
 
     @Override
     public void writeBytes(byte[] values) {
-        for (byte value : values)
-            writeByte(value);
+        writeBytes(values, 0, values.length);
+    }
+
+    /**
+     * Write part of a byte array to this receiver.
+     * @param values The array to copy from.
+     * @param offset The index into the array to start copying from.
+     * @param length The amount of bytes to copy.
+     */
+    public void writeBytes(byte[] values, int offset, int length) {
+        ensureCapacity(this.index + length);
+        System.arraycopy(values, offset, this.bytes, this.index, length);
+        this.index += length;
+        if (this.index > this.size)
+            this.size = this.index;
     }
 
     @Override
@@ -49,11 +56,27 @@ public class ArrayReceiver implements DataReceiver {
         this.index = newIndex;
     }
 
+    /**
+     * Grow the backing array so it can hold at least the given number of bytes.
+     * Bytes which have not been written are always zero, so jumping past the end leaves null bytes in the gap.
+     * @param capacity The minimum capacity.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.bytes.length)
+            return;
+
+        int newCapacity = Math.max(capacity, this.bytes.length + (this.bytes.length >> 1));
+        if (newCapacity < 0) // Overflow.
+            newCapacity = Integer.MAX_VALUE - 8;
+
+        this.bytes = Arrays.copyOf(this.bytes, newCapacity);
+    }
+
     /**
      * Get the array of bytes.
      * @return array
      */
     public byte[] toArray() {
-        return Utils.toArray(bytes);
+        return Arrays.copyOf(this.bytes, this.size);
     }
 }
@@ -4,23 +4,25 @@ import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.Constants;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Write bits into a buffer.
+ * Bits are collected in a long, and written to a byte array a whole byte at a time.
  * Default Behavior:
  * - First byte will end up at byte 0, instead of at the end.
  * - First bit will end up as the right-most byte, while the eight will be the left-most. Ie: writeBit(0); writeBit(1); -> 00000010
  * Created by Kneesnap on 10/5/2018.
  */
-@Getter
 public class BitWriter {
-    private List<Byte> bytes = new ArrayList<>();
-    private int currentBit = Constants.BITS_PER_BYTE;
-    private byte currentByte;
-    @Setter private boolean reverseBytes;
-    @Setter private boolean reverseBits;
+    private byte[] bytes = new byte[DEFAULT_CAPACITY];
+    private int byteCount; // The amount of complete bytes.
+    private long pendingBits; // Bits which have not been written to the array yet.
+    private int pendingBitCount;
+    @Getter @Setter private boolean reverseBytes;
+    @Getter @Setter private boolean reverseBits;
+
+    private static final int DEFAULT_CAPACITY = 1024;
 
     /**
      * Gets the current number of bytes this takes up.
@@ -28,7 +30,7 @@ public class BitWriter {
      * @return byteCount
      */
     public int getByteCount() {
-        return this.bytes.size() + (this.currentBit != Constants.BITS_PER_BYTE ? 1 : 0);
+        return this.byteCount + (this.pendingBitCount > 0 ? 1 : 0);
     }
 
     /**
@@ -39,20 +41,7 @@ public class BitWriter {
         if (bit != Constants.BIT_TRUE && bit != Constants.BIT_FALSE) // Since this is a high call function, we avoid Utils.verify.
             throw new RuntimeException("Invalid bit number " + bit + ".");
 
-        // Add the bit to the current byte.
-        if (bit == Constants.BIT_TRUE)
-            this.currentByte |= (bit << getCurrentBitID());
-
-        // If the current byte is complete, add it to the list of bytes.
-        if (--this.currentBit == 0) {
-            this.bytes.add(this.currentByte);
-            this.currentByte = 0;
-            this.currentBit = Constants.BITS_PER_BYTE;
-        }
-    }
-
-    private int getCurrentBitID() {
-        return isReverseBits() ? this.currentBit - 1 : Constants.BITS_PER_BYTE - this.currentBit;
+        pushBits(bit, 1);
     }
 
     /**
@@ -60,23 +49,24 @@ public class BitWriter {
      * @param count The number of bits to write.
      */
     public void writeFalseBits(int count) {
-        for (int i = 0; i < count; i++)
-            writeBit(0);
+        for (int i = 0; i < count; i += Constants.BITS_PER_BYTE)
+            pushBits(0, Math.min(Constants.BITS_PER_BYTE, count - i));
     }
 
     /**
      * Write bits from an integer.
+     * When reverseBits is set, the least significant bit is written first, otherwise the most significant bit is written first.
      * @param number   The integer to write bits from.
-     * @param bitCount the number of bits.
+     * @param bitCount the number of bits. (Up to 32)
      */
     public void writeBits(int number, int bitCount) {
-        if (this.reverseBits) {
-            for (int i = 0; i < bitCount; i++)
-                writeBit(((number & (Constants.BIT_TRUE << i)) != 0) ? Constants.BIT_TRUE : Constants.BIT_FALSE);
-        } else {
-            for (int i = bitCount - 1; i >= 0; i--)
-                writeBit((number >> i) & Constants.BIT_TRUE);
-        }
+        if (bitCount < 0 || bitCount > Constants.INTEGER_SIZE * Constants.BITS_PER_BYTE)
+            throw new RuntimeException("Cannot write " + bitCount + " bits from an integer.");
+        if (bitCount == 0)
+            return;
+
+        // Either way, the bit which is written first ends up in the opposite position in the byte than it had in the number.
+        pushBits(Integer.reverse(number) >>> (Integer.SIZE - bitCount), bitCount);
     }
 
     /**
@@ -84,15 +74,36 @@ public class BitWriter {
      * @param value The byte to write bits from.
      */
     public void writeByte(byte value) {
-        if (this.reverseBits) {
-            for (int i = 0; i < Constants.BITS_PER_BYTE; i++)
-                writeBit(((value & (Constants.BIT_TRUE << i)) != 0) ? Constants.BIT_TRUE : Constants.BIT_FALSE);
-        } else {
-            for (int i = Constants.BITS_PER_BYTE - 1; i >= 0; i--)
-                writeBit((value >> i) & Constants.BIT_TRUE);
+        writeBits(value, Constants.BITS_PER_BYTE);
+    }
+
+    // Adds bits to the pending bits. The bit to write first is the lowest bit of the value when filling bytes from the right, and the highest bit when filling from the left.
+    private void pushBits(int value, int bitCount) {
+        long bits = value & (0xFFFFFFFFL >>> (Integer.SIZE - bitCount));
+        if (this.reverseBits) { // The first bit is the left-most bit in the byte.
+            this.pendingBits = (this.pendingBits << bitCount) | bits;
+            this.pendingBitCount += bitCount;
+            while (this.pendingBitCount >= Constants.BITS_PER_BYTE) {
+                this.pendingBitCount -= Constants.BITS_PER_BYTE;
+                addByte((byte) (this.pendingBits >>> this.pendingBitCount));
+            }
+        } else { // The first bit is the right-most bit in the byte.
+            this.pendingBits |= (bits << this.pendingBitCount);
+            this.pendingBitCount += bitCount;
+            while (this.pendingBitCount >= Constants.BITS_PER_BYTE) {
+                addByte((byte) this.pendingBits);
+                this.pendingBits >>>= Constants.BITS_PER_BYTE;
+                this.pendingBitCount -= Constants.BITS_PER_BYTE;
+            }
         }
     }
 
+    private void addByte(byte value) {
+        if (this.byteCount == this.bytes.length)
+            this.bytes = Arrays.copyOf(this.bytes, this.bytes.length * 2);
+        this.bytes[this.byteCount++] = value;
+    }
+
     /**
      * Export all written data as a byte array.
      * WARNING: This operation will add bits if there is an incomplete byte, meaning it will change the state of this writer.
@@ -110,25 +121,28 @@ public class BitWriter {
     public byte[] toByteArray(int extraBytesBefore, int extraBytesAfter) {
         finishCurrentByte();
 
-        // Write in backwards order, because PP20 does that.
-        byte[] arr = new byte[extraBytesBefore + this.bytes.size() + extraBytesAfter];
-        int i = isReverseBytes() ? arr.length - 1 - extraBytesAfter : extraBytesBefore;
-        for (Byte aByte : this.bytes)
-            arr[isReverseBytes() ? i-- : i++] = aByte;
+        byte[] arr = new byte[extraBytesBefore + this.byteCount + extraBytesAfter];
+        if (isReverseBytes()) { // Write in backwards order, because PP20 does that.
+            int i = arr.length - 1 - extraBytesAfter;
+            for (int j = 0; j < this.byteCount; j++)
+                arr[i--] = this.bytes[j];
+        } else {
+            System.arraycopy(this.bytes, 0, arr, extraBytesBefore, this.byteCount);
+        }
 
         return arr;
     }
 
     /**
      * Finish the current byte being written.
+     * @return The amount of bits which were added to finish the byte.
      */
     public int finishCurrentByte() {
-        int writtenBits = 0;
-        while (this.currentBit != Constants.BITS_PER_BYTE) {
-            writeBit(0); // Finish the current byte.
-            writtenBits++;
-        }
+        if (this.pendingBitCount == 0)
+            return 0;
 
+        int writtenBits = Constants.BITS_PER_BYTE - this.pendingBitCount;
+        pushBits(0, writtenBits);
         return writtenBits;
     }
 }
@@ -35,7 +35,7 @@ public interface DataReceiver {
     /**
      * Close this receiver. Should be called when all data has been written.
      */
-    default void close() {
+    default void close() throws IOException {
 
     }
 }
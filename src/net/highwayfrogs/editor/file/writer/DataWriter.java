@@ -1,5 +1,6 @@
 package net.highwayfrogs.editor.file.writer;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.highwayfrogs.editor.Constants;
@@ -21,8 +22,8 @@ public class DataWriter {
     private DataReceiver output;
     private Stack<Integer> jumpStack = new Stack<>();
 
-    private static final ByteBuffer INT_BUFFER = ByteBuffer.allocate(Constants.INTEGER_SIZE);
-    private static final ByteBuffer SHORT_BUFFER = ByteBuffer.allocate(Constants.SHORT_SIZE);
+    @Getter(AccessLevel.NONE) private final ByteBuffer intBuffer = ByteBuffer.allocate(Constants.INTEGER_SIZE); // Per-writer, so files can be saved on multiple threads at once.
+    @Getter(AccessLevel.NONE) private final ByteBuffer shortBuffer = ByteBuffer.allocate(Constants.SHORT_SIZE);
 
     public DataWriter(DataReceiver output) {
         this.output = output;
@@ -103,7 +104,11 @@ public class DataWriter {
      * Close the DataReceiver from receiving more data. In-case of streams, this safely closes the stream.
      */
     public void closeReceiver() {
-        output.close();
+        try {
+            output.close();
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to close the DataReceiver.", ex);
+        }
     }
 
     /**
@@ -171,8 +176,8 @@ public class DataWriter {
      * @param value The integer to write.
      */
     public void writeFloat(float value) {
-        INT_BUFFER.clear();
-        writeBytes(INT_BUFFER.order(getEndian()).putFloat(value).array());
+        this.intBuffer.clear();
+        writeBytes(this.intBuffer.order(getEndian()).putFloat(value).array());
     }
 
     /**
@@ -180,8 +185,18 @@ public class DataWriter {
      * @param value The integer to write.
      */
     public void writeInt(int value) {
-        INT_BUFFER.clear();
-        writeBytes(INT_BUFFER.order(getEndian()).putInt(value).array());
+        this.intBuffer.clear();
+        writeBytes(this.intBuffer.order(getEndian()).putInt(value).array());
+    }
+
+    /**
+     * Write an array of integers to the receiver.
+     * @param values The integers to write.
+     */
+    public void writeInts(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Constants.INTEGER_SIZE).order(getEndian());
+        buffer.asIntBuffer().put(values);
+        writeBytes(buffer.array());
     }
 
     /**
@@ -199,8 +214,18 @@ public class DataWriter {
      * @param value The short to write.
      */
     public void writeShort(short value) {
-        SHORT_BUFFER.clear();
-        writeBytes(SHORT_BUFFER.order(getEndian()).putShort(value).array());
+        this.shortBuffer.clear();
+        writeBytes(this.shortBuffer.order(getEndian()).putShort(value).array());
+    }
+
+    /**
+     * Write an array of shorts to the receiver.
+     * @param values The shorts to write.
+     */
+    public void writeShorts(short... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Constants.SHORT_SIZE).order(getEndian());
+        buffer.asShortBuffer().put(values);
+        writeBytes(buffer.array());
     }
 
     /**
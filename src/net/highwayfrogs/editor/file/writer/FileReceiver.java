@@ -48,7 +48,7 @@ public class FileReceiver implements DataReceiver {
     }
 
     @Override
-    public void close() {
+    public void close() throws IOException {
         this.arrayReceiver.close();
 
         if (!this.targetFile.getParentFile().canWrite()) {
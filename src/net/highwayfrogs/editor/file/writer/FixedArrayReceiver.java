@@ -22,8 +22,8 @@ public class FixedArrayReceiver implements DataReceiver {
 
     @Override
     public void writeBytes(byte[] values) {
-        for (byte value : values)
-            writeByte(value);
+        System.arraycopy(values, 0, this.array, this.index, values.length);
+        this.index += values.length;
     }
 
     @Override
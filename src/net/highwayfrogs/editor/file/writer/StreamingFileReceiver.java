@@ -0,0 +1,162 @@
+package net.highwayfrogs.editor.file.writer;
+
+import net.highwayfrogs.editor.utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A DataReceiver which streams data to a file as it is written, instead of holding all of it in memory.
+ * Sequential writes are collected in a direct buffer. Writes outside of the buffered region (Such as pointers which are written after the data they point to) are written in-place with positional writes.
+ * Data is written to a temporary file, which replaces the target file once the receiver is closed. This keeps the old file intact if saving fails.
+ * On Windows, the target file can't be replaced while it is memory-mapped, so it must not be an input file opened with MappedFileSource.
+ * Created by agent on 10/18/2026.
+ */
+public class StreamingFileReceiver implements DataReceiver {
+    private final File targetFile;
+    private final File tempFile;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long bufferStart; // The file position which the start of the buffer will be written to.
+    private long fileSize; // The size of the data which has been written to the channel.
+    private int index;
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    private static final byte[] ZERO_BYTES = new byte[8192];
+
+    public StreamingFileReceiver(File file) throws IOException {
+        this(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingFileReceiver(File file, int bufferSize) throws IOException {
+        this.targetFile = file;
+        this.tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        this.channel = FileChannel.open(this.tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void writeByte(byte value) throws IOException {
+        if (isInBuffer(this.index, 1)) {
+            putInBuffer(value);
+        } else {
+            writeBytes(new byte[]{value});
+        }
+    }
+
+    @Override
+    public void writeBytes(byte[] values) throws IOException {
+        if (isInBuffer(this.index, values.length)) {
+            putInBuffer(values);
+            return;
+        }
+
+        // The write does not fit the buffered region, so start a new region at the write index.
+        flushBuffer();
+        fillGap(this.index);
+        if (values.length >= this.buffer.capacity()) { // Too large to buffer, write it directly.
+            writeFully(ByteBuffer.wrap(values), this.index);
+            this.bufferStart = this.index + values.length;
+        } else {
+            this.bufferStart = this.index;
+            this.buffer.put(values);
+        }
+
+        this.index += values.length;
+    }
+
+    @Override
+    public void setIndex(int newIndex) {
+        this.index = newIndex;
+    }
+
+    @Override
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Writes the remaining data, and replaces the target file with the temporary file.
+     * If this fails, the target file is left as it was, and discard() should be called to remove the temporary file.
+     */
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        this.channel.close();
+
+        try {
+            Files.move(this.tempFile.toPath(), this.targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(this.tempFile.toPath(), this.targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Closes the receiver without replacing the target file, and deletes the temporary file. Used when saving fails.
+     */
+    public void discard() {
+        try {
+            this.channel.close();
+        } catch (IOException ex) {
+            ex.printStackTrace(); // The temporary file is deleted either way.
+        }
+
+        Utils.deleteFile(this.tempFile);
+    }
+
+    // Tests if a write can go into the buffer. It must start inside of or directly after the buffered data, and fit within the buffer.
+    private boolean isInBuffer(long writeIndex, int length) {
+        long bufferedEnd = this.bufferStart + this.buffer.position();
+        return writeIndex >= this.bufferStart && writeIndex <= bufferedEnd
+                && (writeIndex - this.bufferStart) + length <= this.buffer.capacity();
+    }
+
+    private void putInBuffer(byte value) {
+        int bufferIndex = (int) (this.index - this.bufferStart);
+        if (bufferIndex == this.buffer.position()) {
+            this.buffer.put(value);
+        } else {
+            this.buffer.put(bufferIndex, value);
+        }
+
+        this.index++;
+    }
+
+    private void putInBuffer(byte[] values) {
+        int oldPosition = this.buffer.position();
+        this.buffer.position((int) (this.index - this.bufferStart));
+        this.buffer.put(values);
+        if (oldPosition > this.buffer.position())
+            this.buffer.position(oldPosition); // Overwrote data in the middle of the buffer, so keep the data after it.
+        this.index += values.length;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.buffer.position() == 0)
+            return;
+
+        this.buffer.flip();
+        writeFully(this.buffer, this.bufferStart);
+        this.buffer.clear();
+    }
+
+    // The contents of a file between the old end of the file and a write past it are unspecified, so write null bytes there explicitly.
+    private void fillGap(long writeIndex) throws IOException {
+        while (this.fileSize < writeIndex)
+            writeFully(ByteBuffer.wrap(ZERO_BYTES, 0, (int) Math.min(ZERO_BYTES.length, writeIndex - this.fileSize)), this.fileSize);
+    }
+
+    private void writeFully(ByteBuffer data, long position) throws IOException {
+        long writePosition = position;
+        while (data.hasRemaining())
+            writePosition += this.channel.write(data, writePosition);
+
+        this.fileSize = Math.max(this.fileSize, writePosition);
+    }
+}
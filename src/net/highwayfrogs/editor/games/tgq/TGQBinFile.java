@@ -1,10 +1,12 @@
 package net.highwayfrogs.editor.games.tgq;
 
 import lombok.Getter;
+import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.GameObject;
 import net.highwayfrogs.editor.file.reader.ArraySource;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.reader.FileSource;
+import net.highwayfrogs.editor.file.reader.MappedFileSource;
 import net.highwayfrogs.editor.file.writer.ArrayReceiver;
 import net.highwayfrogs.editor.file.writer.DataWriter;
 import net.highwayfrogs.editor.file.writer.FileReceiver;
@@ -204,7 +206,7 @@ public class TGQBinFile extends GameObject {
 
         // Load main bin.
         System.out.println("Loading file...");
-        DataReader reader = new DataReader(new FileSource(binFile));
+        DataReader reader = new DataReader(Constants.ENABLE_MEMORY_MAPPED_FILES ? new MappedFileSource(binFile) : new FileSource(binFile));
         TGQBinFile mainFile = new TGQBinFile();
         mainFile.load(reader);
 
@@ -4,7 +4,6 @@ import lombok.Cleanup;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import net.highwayfrogs.editor.Constants;
-import net.highwayfrogs.editor.file.reader.ArraySource;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.writer.ArrayReceiver;
 import net.highwayfrogs.editor.file.writer.DataWriter;
@@ -39,14 +38,16 @@ public class TGQChunkedFile extends TGQFile {
         while (reader.hasMore()) {
             String magic = reader.readString(4);
             int length = reader.readInt() + 0x20; // 0x20 and not 0x24 because we're reading from the start of the data, not the length.
-            byte[] readBytes = reader.readBytes(Math.min(reader.getRemaining(), length)); //TODO: Handle bad length.
+            int readLength = Math.min(reader.getRemaining(), length); //TODO: Handle bad length.
+            DataReader chunkReader = reader.slice(reader.getIndex(), readLength);
+            reader.skipBytes(readLength);
 
             // Read chunk.
             KCResourceID readType = KCResourceID.getByMagic(magic);
 
             kcCResource newChunk = readType != null && readType.getMaker() != null ?
                     readType.getMaker().apply(this) : new TGQDummyFileChunk(this, magic);
-            newChunk.load(new DataReader(new ArraySource(readBytes)));
+            newChunk.load(chunkReader);
             this.chunks.add(newChunk);
 
             //TODO: Warning if it doesn't read the entire file.
@@ -3,7 +3,7 @@ package net.highwayfrogs.editor.games.tgq;
 import net.highwayfrogs.editor.file.reader.DataReader;
 import net.highwayfrogs.editor.file.reader.FileSource;
 import net.highwayfrogs.editor.file.writer.DataWriter;
-import net.highwayfrogs.editor.file.writer.FileReceiver;
+import net.highwayfrogs.editor.file.writer.StreamingFileReceiver;
 
 import java.io.File;
 import java.util.Scanner;
@@ -36,7 +36,7 @@ public class TGQRunners {
         mainFile.getFiles().get(32).init(null, mainFile.getFiles().get(32).isCompressed(), levelHash);
 
         System.out.println("Saving.");
-        DataWriter writer = new DataWriter(new FileReceiver(new File(binFile.getParentFile(), "export.bin"), 300 * (1024 * 1024)));
+        DataWriter writer = new DataWriter(new StreamingFileReceiver(new File(binFile.getParentFile(), "export.bin")));
         mainFile.save(writer);
         writer.closeReceiver();
         System.out.println("Done.");
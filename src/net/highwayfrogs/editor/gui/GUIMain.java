@@ -16,7 +16,10 @@ import net.highwayfrogs.editor.file.MWDFile;
 import net.highwayfrogs.editor.file.config.Config;
 import net.highwayfrogs.editor.file.config.FroggerEXEInfo;
 import net.highwayfrogs.editor.file.reader.DataReader;
+import net.highwayfrogs.editor.file.reader.DataSource;
+import net.highwayfrogs.editor.file.reader.FileChannelSource;
 import net.highwayfrogs.editor.file.reader.FileSource;
+import net.highwayfrogs.editor.file.reader.MappedFileSource;
 import net.highwayfrogs.editor.utils.DataSizeUnit;
 import net.highwayfrogs.editor.utils.FroggerVersionComparison;
 import net.highwayfrogs.editor.utils.Utils;
@@ -127,7 +130,17 @@ public class GUIMain extends Application {
         FroggerEXEInfo loadConfig = EXE_CONFIG;
         loadConfig.setup();
         MWDFile mwd = loadConfig.getMWD();
-        mwd.load(new DataReader(new FileSource(mwdFile)));
+        DataSource mwdSource;
+        if (Constants.ENABLE_MEMORY_MAPPED_FILES) {
+            mwdSource = new MappedFileSource(mwdFile);
+        } else if (Constants.ENABLE_LAZY_MWD_LOADING) {
+            mwdSource = new FileChannelSource(mwdFile); // Files which are never opened are never read onto the heap.
+        } else {
+            mwdSource = new FileSource(mwdFile);
+        }
+
+        mwd.load(new DataReader(mwdSource));
+        mwd.setDiskFile(mwdFile);
         MainController.MAIN_WINDOW.loadMWD(mwd); // Setup GUI.
     }
 
@@ -166,7 +179,14 @@ public class GUIMain extends Application {
 
         resolveEXE(exeFile, () -> {
             openGUI(MAIN_STAGE, mwdFile);
-            FroggerVersionComparison.addNewVersionToConfig(EXE_CONFIG);
+            FroggerVersionComparison.calculateHashes(mwdFile, EXE_CONFIG).whenComplete((result, ex) -> Platform.runLater(() -> {
+                if (ex != null) {
+                    ex.printStackTrace();
+                    Utils.makePopUp("Failed to calculate the file hashes for version comparison.", AlertType.ERROR);
+                } else {
+                    FroggerVersionComparison.addNewVersionToConfig(EXE_CONFIG);
+                }
+            }));
         });
     }
 }
\ No newline at end of file
@@ -18,10 +18,9 @@ import net.highwayfrogs.editor.file.*;
 import net.highwayfrogs.editor.file.MWIFile.FileEntry;
 import net.highwayfrogs.editor.file.config.FroggerEXEInfo;
 import net.highwayfrogs.editor.file.map.MAPFile;
+import net.highwayfrogs.editor.file.packers.PP20Packer.PP20Effort;
 import net.highwayfrogs.editor.file.sound.VHFile;
 import net.highwayfrogs.editor.file.vlo.GameImage;
-import net.highwayfrogs.editor.file.vlo.ImageFilterSettings;
-import net.highwayfrogs.editor.file.vlo.ImageFilterSettings.ImageState;
 import net.highwayfrogs.editor.file.vlo.VLOArchive;
 import net.highwayfrogs.editor.file.writer.DataWriter;
 import net.highwayfrogs.editor.file.writer.FileReceiver;
@@ -83,7 +82,7 @@ public class MainController implements Initializable {
 
         Map<Integer, ObservableList<GameFile>> gameFileRegistry = new HashMap<>();
 
-        for (GameFile gameFile : mwdFile.getFiles()) {
+        for (GameFile gameFile : mwdFile.getFilesWithoutLoading()) { // Files are loaded once they are opened.
             // Grab corresponding file entry information for the game file
             FileEntry fileEntry = mwdFile.getEntryMap().get(gameFile);
             int type = fileEntry.getSpoofedTypeId();
@@ -165,6 +164,11 @@ public class MainController implements Initializable {
         SaveController.saveFiles(GUIMain.EXE_CONFIG, getMwdFile());
     }
 
+    @FXML
+    private void actionQuickSaveMWD(ActionEvent evt) {
+        SaveController.saveFiles(GUIMain.EXE_CONFIG, getMwdFile(), PP20Effort.FAST, true);
+    }
+
     @FXML
     private void actionSaveMWI(ActionEvent evt) {
         File selectedFile = Utils.promptFileSave("Specify the file to export the MWI as...", "FROGPSX", "Millenium WAD Index", "MWI");
@@ -266,14 +270,10 @@ public class MainController implements Initializable {
     @FXML
     private void actionExportBulkTextures(ActionEvent evt) {
         File targetFolder = Utils.promptChooseDirectory("Choose the directory to save all textures to.", false);
+        if (targetFolder == null)
+            return; // Cancelled.
 
-        ImageFilterSettings exportSettings = new ImageFilterSettings(ImageState.EXPORT).setTrimEdges(false).setAllowTransparency(true);
-        List<VLOArchive> allVlos = getMwdFile().getAllFiles(VLOArchive.class);
-        for (VLOArchive saveVLO : allVlos) {
-            File vloFolder = new File(targetFolder, Utils.stripExtension(saveVLO.getFileEntry().getDisplayName()));
-            Utils.makeDirectory(vloFolder);
-            saveVLO.exportAllImages(vloFolder, exportSettings);
-        }
+        TextureExportController.exportTextures(getMwdFile(), targetFolder);
     }
 
     /**
@@ -288,8 +288,9 @@ public class MainController implements Initializable {
         byte[] fileBytes = Files.readAllBytes(selectedFile.toPath());
         GameFile oldFile = getCurrentFile();
         GameFile newFile = mwdFile.replaceFile(fileBytes, getFileEntry(), oldFile);
-        this.mwdFile.getFiles().set(this.mwdFile.getFiles().indexOf(oldFile), newFile);
+        this.mwdFile.getFilesWithoutLoading().set(this.mwdFile.getFilesWithoutLoading().indexOf(oldFile), newFile);
         getCurrentFilesList().getItems().set(getCurrentFilesList().getItems().indexOf(oldFile), newFile);
+        this.mwdFile.invalidateTextureIdIndex();
 
         newFile.onImport(oldFile, getFileEntry().getDisplayName(), selectedFile.getName());
         openEditor(getCurrentFilesList(), newFile); // Open the editor for the new file.
@@ -328,6 +329,7 @@ public class MainController implements Initializable {
 
         editorPane.getChildren().clear(); // Remove any existing editor.
 
+        file.getMWD().ensureLoaded(file);
         Node node = file.makeEditor();
         if (node != null) { // null = No editor.
             getCurrentController().onInit(editorPane);
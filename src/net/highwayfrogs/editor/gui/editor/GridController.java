@@ -241,7 +241,7 @@ public class GridController implements Initializable {
         graphics.clearRect(0, 0, gridCanvas.getWidth(), gridCanvas.getHeight());
 
         TextureMap texMap = getManager().getMesh().getTextureMap();
-        Image fxTextureImage = Utils.toFXImage(texMap.getTextureTree().getImage(), false);
+        Image fxTextureImage = Utils.toFXImage(texMap.getTextureTree().getImage());
 
         ZoneRegion currentRegion = getCurrentRegion();
         for (int z = 0; z < getMap().getGridZCount(); z++) {
@@ -432,7 +432,7 @@ public class GridController implements Initializable {
         GridSquare square = stack.getGridSquares().get(layer);
         if (square.getPolygon() != null) {
             TextureTreeNode entry = square.getPolygon().getTreeNode(texMap);
-            selectedImage.setImage(sameLayerTypes(stacks, layer) ? Utils.toFXImage(entry.getImage(), false) : null);
+            selectedImage.setImage(sameLayerTypes(stacks, layer) ? Utils.toFXImage(entry.getImage()) : null);
         } else {
             selectedImage.setImage(null);
         }
@@ -89,7 +89,7 @@ public class ImagePaddingController implements Initializable {
         graphics.fillRect(imgWidth - xClip, yClip, xClip, secondY - yClip);
         graphics.dispose();
 
-        imageView.setImage(Utils.toFXImage(image, false));
+        imageView.setImage(Utils.toFXImage(image));
     }
 
     @FXML
@@ -554,7 +554,7 @@ public class MOFController extends EditorController<MOFHolder> {
             final int tempIndex = i;
             MOFPartPolyAnimEntry entry = entryList.getEntries().get(i);
             GameImage image = entryList.getMWD().getImageByTextureId(entry.getImageId());
-            Image scaledImage = Utils.toFXImage(image.toBufferedImage(VLOArchive.ICON_EXPORT), true);
+            Image scaledImage = image.toFXImage(VLOArchive.ICON_EXPORT);
             ImageView view = new ImageView(scaledImage);
             view.setFitWidth(20);
             view.setFitHeight(20);
@@ -14,12 +14,14 @@ import lombok.Getter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.MWDFile;
 import net.highwayfrogs.editor.file.config.FroggerEXEInfo;
+import net.highwayfrogs.editor.file.packers.PP20Packer.PP20Effort;
 import net.highwayfrogs.editor.file.writer.DataWriter;
-import net.highwayfrogs.editor.file.writer.FileReceiver;
+import net.highwayfrogs.editor.file.writer.StreamingFileReceiver;
 import net.highwayfrogs.editor.system.AbstractService;
 import net.highwayfrogs.editor.utils.Utils;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -52,7 +54,18 @@ public class SaveController implements Initializable {
      * @param folder     The folder to output the mwds.
      */
     public void startSaving(MWDFile mwdToSave, FroggerEXEInfo froggerEXE, File folder) {
-        AbstractService.runAbstractTask(() -> new SaveTask(mwdToSave, froggerEXE, new File(folder, "FROGPSX.MWD"), new File(folder, "frogger.exe"), this));
+        startSaving(mwdToSave, froggerEXE, folder, false);
+    }
+
+    /**
+     * Start saving the MWD File.
+     * @param mwdToSave   The loaded MWD file to save.
+     * @param froggerEXE  The executable to save data to.
+     * @param folder      The folder to output the mwds.
+     * @param incremental If the existing MWD should be updated in place, only writing the files which have changed.
+     */
+    public void startSaving(MWDFile mwdToSave, FroggerEXEInfo froggerEXE, File folder, boolean incremental) {
+        AbstractService.runAbstractTask(() -> new SaveTask(mwdToSave, froggerEXE, new File(folder, "FROGPSX.MWD"), new File(folder, "frogger.exe"), incremental, this));
     }
 
     /**
@@ -61,8 +74,30 @@ public class SaveController implements Initializable {
      * @param loadedMWD  The MWD to save.
      */
     public static void saveFiles(FroggerEXEInfo froggerEXE, MWDFile loadedMWD) {
+        saveFiles(froggerEXE, loadedMWD, PP20Effort.EXTREME);
+    }
+
+    /**
+     * Start saving a MWD.
+     * @param froggerEXE The executable config.
+     * @param loadedMWD  The MWD to save.
+     * @param effort     How thoroughly to compress the files which have changed.
+     */
+    public static void saveFiles(FroggerEXEInfo froggerEXE, MWDFile loadedMWD, PP20Effort effort) {
+        saveFiles(froggerEXE, loadedMWD, effort, false);
+    }
+
+    /**
+     * Start saving a MWD.
+     * @param froggerEXE  The executable config.
+     * @param loadedMWD   The MWD to save.
+     * @param effort      How thoroughly to compress the files which have changed.
+     * @param incremental If the existing MWD should be updated in place, only writing the files which have changed. If this isn't possible, the whole MWD is saved.
+     */
+    public static void saveFiles(FroggerEXEInfo froggerEXE, MWDFile loadedMWD, PP20Effort effort, boolean incremental) {
+        loadedMWD.setCompressionEffort(effort);
         Utils.loadFXMLTemplate("save", "Saving MWD", SaveController::new,
-                (stage, controller) -> controller.startSaving(loadedMWD, froggerEXE, froggerEXE.getFolder()));
+                (stage, controller) -> controller.startSaving(loadedMWD, froggerEXE, froggerEXE.getFolder(), incremental));
     }
 
     @AllArgsConstructor
@@ -71,6 +106,7 @@ public class SaveController implements Initializable {
         private FroggerEXEInfo inputConfig;
         private File outputMWD;
         private File outputEXE;
+        private boolean incremental;
         private SaveController saveController;
 
         @Override
@@ -86,8 +122,6 @@ public class SaveController implements Initializable {
                 return null;
             }
 
-            DataWriter mwdWriter = new DataWriter(new FileReceiver(outputMWD));
-
             mwdToSave.setSaveCallback((entry, file) -> {
                 currentFile.incrementAndGet();
                 if (alreadyScheduledUpdate.getAndSet(true))
@@ -95,7 +129,7 @@ public class SaveController implements Initializable {
 
                 Platform.runLater(() -> {
                     int saveCount = currentFile.get();
-                    int fileCount = mwdToSave.getFiles().size();
+                    int fileCount = mwdToSave.getFilesWithoutLoading().size();
 
                     double progress = (double) saveCount / (double) fileCount;
                     saveController.getProgressBar().setProgress(progress);
@@ -105,15 +139,44 @@ public class SaveController implements Initializable {
                 });
             });
 
-            try {
-                mwdToSave.save(mwdWriter);
-                mwdWriter.closeReceiver();
-                mwdToSave.setSaveCallback(null);
-            } catch (Exception ex) {
-                Platform.runLater(() -> {
-                    saveController.getStage().close();
-                    throw new RuntimeException("Failed to save MWD!", ex);
-                });
+            if (incremental && mwdToSave.canSaveIncrementally(outputMWD)) {
+                try {
+                    mwdToSave.saveIncrementally(outputMWD);
+                    mwdToSave.setSaveCallback(null);
+                } catch (Exception ex) {
+                    mwdToSave.setDiskFile(null); // If writing failed, the MWD may have only been partially updated, so it must be saved in full next time.
+                    Platform.runLater(() -> {
+                        saveController.getStage().close();
+                        throw new RuntimeException("Failed to save MWD!", ex);
+                    });
+                    return null; // The EXE must not be patched for an MWD which wasn't saved.
+                }
+            } else {
+                StreamingFileReceiver mwdReceiver;
+                try {
+                    mwdReceiver = new StreamingFileReceiver(outputMWD); // Streams the MWD to disk as it is saved, so it isn't held in memory.
+                } catch (IOException ex) {
+                    Platform.runLater(() -> {
+                        saveController.getStage().close();
+                        Utils.makeErrorPopUp("Failed to open '" + outputMWD.getName() + "' for writing.", ex, true);
+                    });
+                    return null;
+                }
+
+                try {
+                    mwdToSave.save(new DataWriter(mwdReceiver));
+                    mwdReceiver.close();
+                    mwdToSave.setSaveCallback(null);
+                    mwdToSave.setDiskFile(outputMWD);
+                } catch (Exception ex) {
+                    mwdReceiver.discard(); // The old MWD is left as it was.
+                    mwdToSave.setDiskFile(null); // The file entries no longer match the MWD which was loaded.
+                    Platform.runLater(() -> {
+                        saveController.getStage().close();
+                        throw new RuntimeException("Failed to save MWD!", ex);
+                    });
+                    return null; // The EXE must not be patched for an MWD which wasn't saved.
+                }
             }
 
             try {
@@ -31,7 +31,7 @@ public class SkyLandController extends EditorController<SkyLand> {
         this.previewImage.setDisable(!hasImage);
         this.exportButton.setDisable(!hasImage);
         if (hasImage)
-            this.previewImage.setImage(Utils.toFXImage(this.image, false));
+            this.previewImage.setImage(Utils.toFXImage(this.image));
     }
 
     @FXML
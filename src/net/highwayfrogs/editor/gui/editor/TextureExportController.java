@@ -0,0 +1,137 @@
+package net.highwayfrogs.editor.gui.editor;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.event.Event;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.Stage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.highwayfrogs.editor.file.MWDFile;
+import net.highwayfrogs.editor.file.vlo.GameImage;
+import net.highwayfrogs.editor.file.vlo.ImageFilterSettings;
+import net.highwayfrogs.editor.file.vlo.ImageFilterSettings.ImageState;
+import net.highwayfrogs.editor.file.vlo.VLOArchive;
+import net.highwayfrogs.editor.system.AbstractService;
+import net.highwayfrogs.editor.utils.Utils;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.*;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manages the screen which pops up while exporting every texture in the MWD.
+ * Created by agent on 10/18/2026.
+ */
+@Getter
+public class TextureExportController implements Initializable {
+    @FXML private Label progressLabel;
+    @FXML private Label statusLabel;
+    @FXML private ProgressBar progressBar;
+    private Stage stage;
+
+    public TextureExportController(Stage stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        stage.setOnCloseRequest(Event::consume); // Prevent shutting the window.
+        statusLabel.setText("Loading VLOs...");
+    }
+
+    /**
+     * Export every texture in a MWD. Each VLO is exported to its own folder.
+     * @param mwdFile      The MWD to export textures from.
+     * @param targetFolder The folder to export textures to.
+     */
+    public static void exportTextures(MWDFile mwdFile, File targetFolder) {
+        Utils.loadFXMLTemplate("save", "Exporting Textures", TextureExportController::new,
+                (stage, controller) -> AbstractService.runAbstractTask(() -> new TextureExportTask(mwdFile, targetFolder, controller)));
+    }
+
+    @AllArgsConstructor
+    private static final class TextureExportTask extends Task<Void> {
+        private MWDFile mwdFile;
+        private File targetFolder;
+        private TextureExportController exportController;
+
+        @Override
+        protected Void call() {
+            ImageFilterSettings exportSettings = new ImageFilterSettings(ImageState.EXPORT).setTrimEdges(false).setAllowTransparency(true);
+            List<VLOArchive> allVlos = mwdFile.getAllFiles(VLOArchive.class);
+            int imageCount = allVlos.stream().mapToInt(vlo -> vlo.getImages().size()).sum();
+            AtomicInteger exportedImages = new AtomicInteger();
+            AtomicBoolean alreadyScheduledUpdate = new AtomicBoolean();
+            long exportStart = System.currentTimeMillis();
+
+            // Images are converted and written on a pool of worker threads. Once the queue is full, this thread exports images too, which keeps the queue from growing.
+            int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threadCount * 4), runnable -> {
+                Thread thread = new Thread(runnable, "Texture Export Worker");
+                thread.setDaemon(true);
+                return thread;
+            }, new CallerRunsPolicy());
+
+            try {
+                List<Future<?>> futures = new ArrayList<>(imageCount);
+                for (VLOArchive vlo : allVlos) {
+                    File vloFolder = new File(targetFolder, Utils.stripExtension(vlo.getFileEntry().getDisplayName()));
+                    Utils.makeDirectory(vloFolder);
+
+                    for (int i = 0; i < vlo.getImages().size(); i++) {
+                        GameImage image = vlo.getImages().get(i);
+                        File outputFile = new File(vloFolder, i + ".png");
+                        futures.add(executor.submit(() -> {
+                            try {
+                                ImageIO.write(image.toBufferedImage(exportSettings), "png", outputFile);
+                            } catch (IOException ex) {
+                                throw new RuntimeException("Failed to export '" + outputFile + "'.", ex);
+                            }
+
+                            exportedImages.incrementAndGet();
+                            if (!alreadyScheduledUpdate.getAndSet(true))
+                                Platform.runLater(() -> {
+                                    showProgress(exportedImages.get(), imageCount, exportStart);
+                                    alreadyScheduledUpdate.set(false);
+                                });
+                        }));
+                    }
+                }
+
+                for (Future<?> future : futures)
+                    future.get();
+            } catch (Exception ex) {
+                Platform.runLater(() -> {
+                    exportController.getStage().close();
+                    throw new RuntimeException("Failed to export textures.", ex);
+                });
+                return null;
+            } finally {
+                executor.shutdownNow();
+            }
+
+            Platform.runLater(exportController.getStage()::close);
+            return null;
+        }
+
+        private void showProgress(int exportCount, int imageCount, long exportStart) {
+            double progress = imageCount > 0 ? (double) exportCount / (double) imageCount : 1D;
+            long exportTime = Math.max(1, System.currentTimeMillis() - exportStart);
+            exportController.getProgressBar().setProgress(progress);
+            exportController.getProgressLabel().setText((int) (progress * 100) + "%");
+            exportController.getStatusLabel().setText(exportCount + "/" + imageCount + " (" + (exportCount * 1000L / exportTime) + " textures/s)");
+        }
+    }
+}
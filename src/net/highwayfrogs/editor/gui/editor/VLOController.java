@@ -111,6 +111,7 @@ public class VLOController extends EditorController<VLOArchive> {
 
             int newView = getFile().getImages().size();
             getFile().getImages().add(gameImage.clone());
+            getFile().getMWD().invalidateTextureIdIndex();
             imageList.setItems(FXCollections.observableArrayList(getFile().getImages()));
             imageList.getSelectionModel().select(newView);
             imageList.scrollTo(newView);
@@ -269,7 +270,7 @@ public class VLOController extends EditorController<VLOArchive> {
             boolean scaleSize = this.sizeChoiceBox.getValue() != ImageControllerViewSetting.ORIGINAL_SIZE;
             this.imageView.setFitWidth(scaleSize ? SCALE_DIMENSION : image.getWidth());
             this.imageView.setFitHeight(scaleSize ? SCALE_DIMENSION : image.getHeight());
-            this.imageView.setImage(Utils.toFXImage(image, false));
+            this.imageView.setImage(this.selectedImage.toFXImage(this.imageFilterSettings));
         }
     }
 
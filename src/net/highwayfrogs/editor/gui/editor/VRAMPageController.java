@@ -5,9 +5,11 @@ import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -20,6 +22,7 @@ import lombok.SneakyThrows;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.vlo.GameImage;
 import net.highwayfrogs.editor.file.vlo.VLOArchive;
+import net.highwayfrogs.editor.file.vlo.VRAMPacker;
 import net.highwayfrogs.editor.system.AbstractStringConverter;
 import net.highwayfrogs.editor.system.Tuple2;
 import net.highwayfrogs.editor.utils.Utils;
@@ -27,6 +30,7 @@ import net.highwayfrogs.editor.utils.Utils;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.net.URL;
+import java.util.List;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -49,11 +53,11 @@ public class VRAMPageController implements Initializable {
     // Editor data.
     private BufferedImage fullImage;
     private BufferedImage[] splitImages;
-    private HashSet<Short> changedPages = new HashSet<>(); // A set of pages which need updating.
+    private Image[] splitFXImages;
     private ImageView[] splitImageViews = new ImageView[GameImage.TOTAL_PAGES]; // A set of pages which need updating.
     private HBox[] splitHBoxes = new HBox[splitImageViews.length];
-    private boolean[][] overlapGrid; // Used to test if textures overlap.
     private int selectedPage;
+    private String packingReport; // Shown after the images have been arranged automatically.
 
     // Configuration:
     private Stage stage;
@@ -70,8 +74,6 @@ public class VRAMPageController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        // Choose visibility of UI based on
-        this.overlapGrid = new boolean[isPsxMode() ? GameImage.PSX_FULL_PAGE_WIDTH : GameImage.PC_PAGE_WIDTH][isPsxMode() ? GameImage.PSX_PAGE_HEIGHT : GameImage.PC_PAGE_HEIGHT];
         setupImages();
 
         if (isPsxMode()) {
@@ -137,7 +139,7 @@ public class VRAMPageController implements Initializable {
             if (newImage != null) {
                 xField.setText(String.valueOf(newImage.getVramX()));
                 yField.setText(String.valueOf(newImage.getVramY()));
-                this.selectedView.setImage(Utils.toFXImage(newImage.toBufferedImage(), true));
+                this.selectedView.setImage(newImage.toFXImage());
                 this.imageView.requestFocus(); // Allow arrow keys to be listened for, instead of moving cursor.
             }
 
@@ -210,9 +212,8 @@ public class VRAMPageController implements Initializable {
         if (finalX == this.selectedImage.getVramX() && finalY == this.selectedImage.getVramY())
             return; // No change!
 
-        this.changedPages.add(this.selectedImage.getMultiplierPage()); // Mark the source page for updating.
-        this.changedPages.add(this.selectedImage.getEndPage()); // Make sure if the image is split among two texture pages they both get updated.
-        saveOriginalPosition();
+        this.vloArchive.markVRAMDirty(this.selectedImage); // Mark the source pages for updating.
+        saveOriginalPosition(this.selectedImage);
 
         this.selectedImage.setVramX(finalX);
         if (updateTextFields)
@@ -222,18 +223,13 @@ public class VRAMPageController implements Initializable {
         if (updateTextFields)
             yField.setText(String.valueOf(this.selectedImage.getVramY()));
 
-        this.changedPages.add(this.selectedImage.getMultiplierPage()); // Mark the destination page for updating.
-        this.changedPages.add(this.selectedImage.getEndPage()); // Make sure if the image is split among two texture pages they both get updated.
+        this.vloArchive.markVRAMDirty(this.selectedImage); // Mark the destination pages for updating.
         updateAll();
     }
 
     private void updateImage() {
-        this.fullImage = vloArchive.makeVRAMImage(this.fullImage); // Update main image. (Before updating pages.)
-        for (Short updatePage : this.changedPages) // Update changed pages.
-            updateSplitImage(updatePage);
-        this.changedPages.clear();
-
-        this.imageView.setImage(Utils.toFXImage(this.splitImages[this.selectedPage], false));
+        this.fullImage = vloArchive.getVRAMImage(this::updateSplitImage); // Only the pages which changed are redrawn and updated.
+        this.imageView.setImage(this.splitFXImages[this.selectedPage]);
         this.imageView.setPreserveRatio(false);
         this.imageView.setFitWidth(256);
         this.imageView.setFitHeight(256);
@@ -241,7 +237,7 @@ public class VRAMPageController implements Initializable {
 
     @SneakyThrows
     private void setupImages() {
-        this.fullImage = vloArchive.makeVRAMImage(this.fullImage); // Main image. (Must run first so split images have something to grab from.)
+        this.fullImage = vloArchive.getVRAMImage(); // Main image. (Must run first so split images have something to grab from.)
 
         // Setup image views.
         if (isPsxMode())
@@ -251,6 +247,7 @@ public class VRAMPageController implements Initializable {
         // Setup images. (After views)
         int totalPages = GameImage.TOTAL_PAGES;
         this.splitImages = new BufferedImage[totalPages];
+        this.splitFXImages = new Image[totalPages];
         for (int i = 0; i < this.splitImages.length; i++) {
             this.splitImages[i] = new BufferedImage(isPsxMode() ? GameImage.PSX_FULL_PAGE_WIDTH : GameImage.PC_PAGE_WIDTH, isPsxMode() ? GameImage.PSX_PAGE_HEIGHT : GameImage.PC_PAGE_HEIGHT, this.fullImage.getType());
             updateSplitImage(i);
@@ -268,10 +265,11 @@ public class VRAMPageController implements Initializable {
         Graphics2D graphics = image.createGraphics();
         graphics.drawImage(this.fullImage, 0, 0, image.getWidth(), image.getHeight(), startX, startY, startX + width, startY + height, null);
         graphics.dispose();
+        this.splitFXImages[splitIndex] = Utils.toFXImage(image);
 
         if (isPsxMode()) { // Update displayed image.
             ImageView updateView = this.splitImageViews[splitIndex];
-            updateView.setImage(Utils.toFXImage(image, false));
+            updateView.setImage(this.splitFXImages[splitIndex]);
             updateView.setFitWidth(32);
             updateView.setFitHeight(128);
         }
@@ -314,40 +312,24 @@ public class VRAMPageController implements Initializable {
         }
 
 
-        // Overlap Test:
-        // I couldn't find an algorithm on google which could efficiently find if any boxes overlapped in an arbitrary list of boxes. Literally everything was in regards to testing if two boxes overlap. So, I made my own. I'm sure there's a more efficient way of doing this though.
-        // Actually, something called an R-Tree may be a good data structure for this. Unfortunately, it's rather complicated.
-        // https://stackoverflow.com/questions/13910287/data-structure-to-hold-list-of-rectangles
+        // Overlap Test: Images are grouped by page, then each image is tested against the images on its page which start before it ends.
         if (!multiPageTest) { // If the previous test passes, skip this test, it will error.
+            Map<Short, List<Rectangle>> pageAreas = new HashMap<>();
+            for (GameImage image : vloArchive.getImages())
+                pageAreas.computeIfAbsent(image.getMultiplierPage(), key -> new ArrayList<>()).add(VRAMPacker.getVramArea(image));
+
             loopEnd:
-            for (int i = 0; i < this.splitImages.length; i++) { // Test all of the texture pages.
-                // Clear grid.
-                for (int y = 0; y < overlapGrid.length; y++)
-                    Arrays.fill(overlapGrid[y], false);
-
-                for (GameImage image : vloArchive.getImages()) {
-                    if (image.getMultiplierPage() != i)
-                        continue; // If an image's texture page is not the page we're currently looking for overlaps on, we should skip the image.
-
-                    int baseX = (image.getVramX() % (vloArchive.isPsxMode() ? GameImage.PSX_PAGE_WIDTH * image.getWidthMultiplier() : GameImage.PC_PAGE_WIDTH));
-                    int baseY = (image.getVramY() % (vloArchive.isPsxMode() ? GameImage.PSX_PAGE_HEIGHT : GameImage.PC_PAGE_HEIGHT));
-                    for (int y = 0; y < image.getFullHeight(); y++) {
-                        for (int x = 0; x < image.getFullWidth(); x++) {
-                            int gridX = baseX + x;
-                            int gridY = baseY + y;
-
-                            if (gridY < 0 || gridY >= overlapGrid.length || gridX < 0 || gridX >= overlapGrid[gridY].length) {
-                                warning.append("Bounds Error: [").append(gridX).append(", ").append(gridY).append("]").append(Constants.NEWLINE);
-                                break loopEnd;
-                            }
-
-                            //System.out.println("X: "+ (baseX + x) + ", Y: " + (baseY + y) + ", " + overlapGrid[baseY + y][baseX + x]);
-                            if (overlapGrid[gridY][gridX]) {
-                                warning.append("WARNING: Texture overlap on page ").append(image.getMultiplierPage()).append(" (").append(gridX).append(" ").append(gridY).append(").").append(Constants.NEWLINE);
-                                break loopEnd;
-                            }
-
-                            overlapGrid[gridY][gridX] = true;
+            for (Entry<Short, List<Rectangle>> entry : pageAreas.entrySet()) {
+                List<Rectangle> areas = entry.getValue();
+                areas.sort(Comparator.comparingInt(area -> area.x));
+                for (int i = 0; i < areas.size(); i++) {
+                    Rectangle area = areas.get(i);
+                    for (int j = i + 1; j < areas.size() && areas.get(j).x < area.x + area.width; j++) {
+                        Rectangle overlap = area.intersection(areas.get(j));
+                        if (!overlap.isEmpty()) {
+                            Rectangle pageArea = VRAMPacker.getPageArea(vloArchive, entry.getKey());
+                            warning.append("WARNING: Texture overlap on page ").append(entry.getKey()).append(" (").append(overlap.x - pageArea.x).append(" ").append(overlap.y - pageArea.y).append(").").append(Constants.NEWLINE);
+                            break loopEnd;
                         }
                     }
                 }
@@ -360,10 +342,35 @@ public class VRAMPageController implements Initializable {
             textLabel.setTextFill(Color.RED);
             textLabel.setVisible(true);
         } else { // No warning.
-            textLabel.setText("Select an image in the texture page.");
+            textLabel.setText("Select an image in the texture page." + (this.packingReport != null ? Constants.NEWLINE + this.packingReport : ""));
             textLabel.setTextFill(Color.BLACK);
-            textLabel.setVisible(!hasSelectedImage);
+            textLabel.setVisible(!hasSelectedImage || this.packingReport != null);
+        }
+    }
+
+    @FXML
+    private void autoArrange(ActionEvent evt) {
+        VRAMPacker packer = new VRAMPacker(this.vloArchive);
+        if (!packer.pack()) {
+            Utils.makePopUp(packer.getUnplacedImages().size() + " image(s) do not fit on the texture pages this VLO uses, so the images have not been moved.", AlertType.WARNING);
+            return;
         }
+
+        for (GameImage image : this.vloArchive.getImages())
+            saveOriginalPosition(image);
+        packer.apply();
+
+        StringBuilder report = new StringBuilder("Page Usage:");
+        for (Entry<Integer, Double> entry : packer.getPageUtilization().entrySet())
+            report.append(" #").append(entry.getKey()).append(": ").append(Math.round(entry.getValue() * 100)).append("%");
+        this.packingReport = report.toString();
+
+        if (this.selectedImage != null) {
+            xField.setText(String.valueOf(this.selectedImage.getVramX()));
+            yField.setText(String.valueOf(this.selectedImage.getVramY()));
+        }
+
+        updateAll();
     }
 
     @FXML
@@ -375,8 +382,10 @@ public class VRAMPageController implements Initializable {
         for (Entry<GameImage, Tuple2<Short, Short>> entry : originalState.entrySet()) {
             GameImage image = entry.getKey();
             Tuple2<Short, Short> tuple = entry.getValue();
+            this.vloArchive.markVRAMDirty(image);
             image.setVramX(tuple.getA());
             image.setVramY(tuple.getB());
+            this.vloArchive.markVRAMDirty(image);
         }
         originalState.clear();
 
@@ -389,9 +398,9 @@ public class VRAMPageController implements Initializable {
         this.stage.close();
     }
 
-    private void saveOriginalPosition() {
-        if (!originalState.containsKey(this.selectedImage)) // Save original state, in case everything is cancelled.
-            originalState.put(this.selectedImage, new Tuple2<>(this.selectedImage.getVramX(), this.selectedImage.getVramY()));
+    private void saveOriginalPosition(GameImage image) {
+        if (!originalState.containsKey(image)) // Save original state, in case everything is cancelled.
+            originalState.put(image, new Tuple2<>(image.getVramX(), image.getVramY()));
     }
 
     /**
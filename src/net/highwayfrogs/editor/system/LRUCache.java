@@ -0,0 +1,157 @@
+package net.highwayfrogs.editor.system;
+
+import lombok.Getter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache which holds values up to a maximum total weight.
+ * Once it is full, the least recently used values are discarded to make room for new ones.
+ * This is safe to use from multiple threads.
+ * Created by agent on 10/18/2026.
+ */
+public class LRUCache<K, V> {
+    private final LinkedHashMap<K, V> values = new LinkedHashMap<>(16, .75F, true); // Access-ordered, so the first entry is the least recently used.
+    private final ToLongFunction<V> weigher;
+    @Getter private final long maxWeight;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LRUCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Gets a cached value, marking it as the most recently used.
+     * @param key The key to get the value for.
+     * @return value, or null if it is not cached.
+     */
+    public synchronized V get(K key) {
+        V value = this.values.get(key);
+        if (value != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+
+        return value;
+    }
+
+    /**
+     * Adds a value to the cache, discarding the least recently used values if the cache is over its maximum weight.
+     * Values which weigh more than the maximum weight on their own are not cached.
+     * @param key   The key to cache the value under.
+     * @param value The value to cache.
+     */
+    public synchronized void put(K key, V value) {
+        remove(key);
+
+        long valueWeight = this.weigher.applyAsLong(value);
+        if (valueWeight > this.maxWeight)
+            return;
+
+        this.values.put(key, value);
+        this.weight += valueWeight;
+
+        Iterator<Entry<K, V>> iterator = this.values.entrySet().iterator();
+        while (this.weight > this.maxWeight && iterator.hasNext()) {
+            Entry<K, V> eldest = iterator.next();
+            this.weight -= this.weigher.applyAsLong(eldest.getValue());
+            iterator.remove();
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Removes a value from the cache.
+     * @param key The key of the value to remove.
+     * @return removedValue, or null if it was not cached.
+     */
+    public synchronized V remove(K key) {
+        V removedValue = this.values.remove(key);
+        if (removedValue != null)
+            this.weight -= this.weigher.applyAsLong(removedValue);
+        return removedValue;
+    }
+
+    /**
+     * Removes every value whose key matches a test.
+     * @param keyTest The test to remove keys which match.
+     * @return removedCount
+     */
+    public synchronized int removeIf(Predicate<K> keyTest) {
+        int removedCount = 0;
+        Iterator<Entry<K, V>> iterator = this.values.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<K, V> entry = iterator.next();
+            if (keyTest.test(entry.getKey())) {
+                this.weight -= this.weigher.applyAsLong(entry.getValue());
+                iterator.remove();
+                removedCount++;
+            }
+        }
+
+        return removedCount;
+    }
+
+    /**
+     * Removes all values from the cache.
+     */
+    public synchronized void clear() {
+        this.values.clear();
+        this.weight = 0;
+    }
+
+    /**
+     * Gets the total weight of the values in the cache.
+     * @return weight
+     */
+    public synchronized long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Gets the amount of values in the cache.
+     * @return size
+     */
+    public synchronized int size() {
+        return this.values.size();
+    }
+
+    /**
+     * Gets the amount of lookups which found a cached value.
+     * @return hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the amount of lookups which did not find a cached value.
+     * @return misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Gets the amount of values which have been discarded to keep the cache under its maximum weight.
+     * @return evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LRUCache{size=" + this.values.size() + ", weight=" + this.weight + "/" + this.maxWeight
+                + ", hits=" + this.hits + ", misses=" + this.misses + ", evictions=" + this.evictions + "}";
+    }
+}
@@ -4,14 +4,25 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import net.highwayfrogs.editor.Constants;
 import net.highwayfrogs.editor.file.MWIFile.FileEntry;
+import net.highwayfrogs.editor.file.WADFile;
 import net.highwayfrogs.editor.file.config.Config;
 import net.highwayfrogs.editor.file.config.FroggerEXEInfo;
+import net.highwayfrogs.editor.file.packers.PP20Unpacker;
+import net.highwayfrogs.editor.file.reader.ArraySource;
+import net.highwayfrogs.editor.file.reader.DataReader;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Utilities for handling differences between Frogger versions.
@@ -21,6 +32,8 @@ public class FroggerVersionComparison {
     private static final Map<String, FroggerGameBuild> gameBuildsByName = new HashMap<>();
     private static final List<FroggerGameBuild> gameBuilds = new ArrayList<>();
     private static File versionConfigFile;
+    private static File hashCacheFile;
+    private static final Map<String, FroggerHashCache> hashCachesByPath = new HashMap<>();
 
     private static final Set<String> SKIPPED_FILE_LINKS = new HashSet<>(Arrays.asList("GEN_FROG.XMR", "GEN_FROG.XAR"));
 
@@ -196,6 +209,135 @@ public class FroggerVersionComparison {
         System.out.println("Added new version to config.");
     }
 
+    /**
+     * Calculates the SHA1 hashes of the files in a MWD on a pool of background threads, so the version can be added to the config.
+     * Hashes are cached on disk by the MWD's path, size, and modification time, so they are only calculated the first time a MWD is seen.
+     * @param mwdFile The MWD file to calculate the hashes for.
+     * @param config  The executable the MWD was loaded with.
+     * @return future, which completes once every file entry has its hash.
+     */
+    public static synchronized CompletableFuture<Void> calculateHashes(File mwdFile, FroggerEXEInfo config) {
+        if (!isEnabled() || gameBuildsByName.containsKey(config.getInternalName()))
+            return CompletableFuture.completedFuture(null); // The hashes are only used when a new version is added.
+
+        if (hashCachesByPath.isEmpty())
+            loadHashCache();
+
+        FroggerHashCache hashCache = hashCachesByPath.get(mwdFile.getAbsolutePath());
+        if (hashCache == null || hashCache.getFileSize() != mwdFile.length() || hashCache.getLastModified() != mwdFile.lastModified()) {
+            hashCache = new FroggerHashCache(mwdFile.getAbsolutePath(), mwdFile.length(), mwdFile.lastModified()); // The MWD has changed, so the old hashes can't be used.
+            hashCachesByPath.put(hashCache.getMwdPath(), hashCache);
+        }
+
+        // Files in a WAD come after the WAD in the MWI, and their hashes are calculated with the WAD.
+        List<FileEntry> entries = config.getMWI().getEntries();
+        List<Integer> calculateEntries = new ArrayList<>();
+        int lastEntry = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            FileEntry entry = entries.get(i);
+            if (!entry.testFlag(FileEntry.FLAG_GROUP_ACCESS))
+                lastEntry = i;
+
+            FileEntry archiveEntry = lastEntry >= 0 ? entries.get(lastEntry) : entry;
+            String cachedHash = hashCache.getHashes().get(FroggerHashCache.getKey(entry, archiveEntry));
+            if (cachedHash != null) {
+                entry.setSha1Hash(cachedHash);
+            } else if (lastEntry >= 0 && (calculateEntries.isEmpty() || calculateEntries.get(calculateEntries.size() - 1) != lastEntry)) {
+                calculateEntries.add(lastEntry);
+            }
+        }
+
+        if (calculateEntries.isEmpty())
+            return CompletableFuture.completedFuture(null);
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(mwdFile.toPath(), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(ex);
+            return failedFuture;
+        }
+
+        System.out.println("Calculating the hashes of " + calculateEntries.size() + " files for version comparison.");
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "Version Hash Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        FroggerHashCache finalHashCache = hashCache;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[calculateEntries.size()];
+        for (int i = 0; i < futures.length; i++) {
+            int entryIndex = calculateEntries.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> calculateHashes(channel, entries, entryIndex, finalHashCache), executor);
+        }
+
+        return CompletableFuture.allOf(futures).whenComplete((result, ex) -> {
+            executor.shutdown();
+            try {
+                channel.close();
+            } catch (IOException closeEx) {
+                closeEx.printStackTrace();
+            }
+
+            if (ex == null)
+                saveHashCache();
+        });
+    }
+
+    // Calculates the hash of a file in the MWD, and the hashes of the files inside of it if it is a WAD.
+    private static void calculateHashes(FileChannel channel, List<FileEntry> entries, int entryIndex, FroggerHashCache hashCache) {
+        FileEntry archiveEntry = entries.get(entryIndex);
+        ByteBuffer buffer = ByteBuffer.allocate(archiveEntry.getArchiveSize());
+        try {
+            while (buffer.hasRemaining())
+                if (channel.read(buffer, archiveEntry.getArchiveOffset() + buffer.position()) < 0)
+                    throw new IOException("Reached the end of the MWD while reading " + archiveEntry.getDisplayName() + ".");
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read " + archiveEntry.getDisplayName() + " from the MWD.", ex);
+        }
+
+        byte[] fileData = archiveEntry.isCompressed() ? PP20Unpacker.unpackData(buffer.array()) : buffer.array();
+        setHash(archiveEntry, archiveEntry, fileData, hashCache);
+        if (archiveEntry.getTypeId() == WADFile.TYPE_ID)
+            WADFile.readFileData(new DataReader(new ArraySource(fileData)), (resourceId, wadFileData) -> setHash(entries.get(resourceId), archiveEntry, wadFileData, hashCache));
+    }
+
+    private static void setHash(FileEntry entry, FileEntry archiveEntry, byte[] fileData, FroggerHashCache hashCache) {
+        String hash = Utils.calculateSHA1Hash(fileData);
+        entry.setSha1Hash(hash);
+        hashCache.getHashes().put(FroggerHashCache.getKey(entry, archiveEntry), hash);
+    }
+
+    private static void loadHashCache() {
+        hashCachesByPath.clear();
+        if (hashCacheFile == null || !hashCacheFile.exists())
+            return;
+
+        Config loadConfig = new Config(Utils.readLinesFromFile(hashCacheFile));
+        for (Config childConfig : loadConfig.getOrderedChildren()) {
+            FroggerHashCache hashCache = FroggerHashCache.readHashCache(childConfig);
+            hashCachesByPath.put(hashCache.getMwdPath(), hashCache);
+        }
+    }
+
+    private static synchronized void saveHashCache() {
+        if (hashCacheFile == null)
+            return;
+
+        List<String> results = new ArrayList<>();
+        for (FroggerHashCache hashCache : hashCachesByPath.values())
+            hashCache.write(results);
+
+        try {
+            Files.write(hashCacheFile.toPath(), results);
+        } catch (Throwable th) {
+            th.printStackTrace();
+            System.out.println("Failed to save '" + hashCacheFile.getName() + "'.");
+        }
+    }
+
     /**
      * Represents a file tracked over time.
      */
@@ -232,6 +374,52 @@ public class FroggerVersionComparison {
         }
     }
 
+    @Getter
+    @AllArgsConstructor
+    private static class FroggerHashCache {
+        private final String mwdPath;
+        private final long fileSize;
+        private final long lastModified;
+        private final Map<String, String> hashes = new ConcurrentSkipListMap<>(); // Hashes are added from multiple threads.
+
+        /**
+         * Gets the key which a file's hash is cached with.
+         * @param entry        The entry of the file.
+         * @param archiveEntry The entry of the file in the MWD which holds the file. For files in a WAD, this is the WAD.
+         * @return key
+         */
+        public static String getKey(FileEntry entry, FileEntry archiveEntry) {
+            return entry.getResourceId() + "," + archiveEntry.getArchiveOffset();
+        }
+
+        /**
+         * Writes the cached hashes as config lines.
+         * @param results The list to add the lines to.
+         */
+        public void write(List<String> results) {
+            results.add("[" + this.mwdPath + "]");
+            results.add("size=" + this.fileSize);
+            results.add("modified=" + this.lastModified);
+            this.hashes.forEach((key, hash) -> results.add(key + "," + hash));
+            results.add("");
+        }
+
+        /**
+         * Reads cached hashes from a config entry.
+         * @param config The config entry to read from.
+         * @return hashCache
+         */
+        public static FroggerHashCache readHashCache(Config config) {
+            FroggerHashCache hashCache = new FroggerHashCache(config.getName(), Long.parseLong(config.getString("size")), Long.parseLong(config.getString("modified")));
+            for (String textLine : config.getText()) {
+                int splitIndex = textLine.lastIndexOf(',');
+                hashCache.getHashes().put(textLine.substring(0, splitIndex), textLine.substring(splitIndex + 1));
+            }
+
+            return hashCache;
+        }
+    }
+
     @Getter
     @AllArgsConstructor
     private static class FroggerGameFileEntry {
@@ -302,6 +490,8 @@ public class FroggerVersionComparison {
             return;
         }
 
+        hashCacheFile = new File(mainFolder, "version-hashes.cfg");
+
         loadFromConfig();
     }
 
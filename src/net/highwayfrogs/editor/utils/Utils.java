@@ -13,6 +13,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
@@ -27,7 +28,7 @@ import net.highwayfrogs.editor.gui.GUIMain;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.awt.image.*;
 import java.io.*;
 import java.net.URL;
 import java.nio.ByteBuffer;
@@ -37,7 +38,6 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -54,10 +54,8 @@ public class Utils {
     private static final ByteBuffer FLOAT_BUFFER = ByteBuffer.allocate(Constants.FLOAT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
     private static final CRC32 crc32 = new CRC32();
     private static final File[] EMPTY_FILE_ARRAY = new File[0];
-    private static final Map<BufferedImage, TextureCache> imageCacheMap = new HashMap<>();
     private static final Map<Color, Image> colorImageCacheMap = new HashMap<>();
     private static final Map<Color, java.awt.Color> awtColorCacheMap = new HashMap<>();
-    private static final long IMAGE_CACHE_EXPIRE = TimeUnit.MINUTES.toMillis(5);
     private static final Map<Integer, List<Integer>> integerLists = new HashMap<>();
 
     /**
@@ -1253,15 +1251,38 @@ public class Utils {
 
     /**
      * Turn a BufferedImage into an FX Image.
+     * TYPE_INT_ARGB images have their pixels written straight into the FX image. Other images are converted by SwingFXUtils.
      * @param image The image to convert.
      * @return convertedImage
      */
-    public static Image toFXImage(BufferedImage image, boolean useCache) {
-        imageCacheMap.entrySet().removeIf(entry -> entry.getValue().hasExpired());
-        if (!useCache)
+    public static Image toFXImage(BufferedImage image) {
+        int[] pixels = getPixelArray(image);
+        if (pixels == null)
             return SwingFXUtils.toFXImage(image, null);
 
-        return imageCacheMap.computeIfAbsent(image, bufferedImage -> new TextureCache(SwingFXUtils.toFXImage(bufferedImage, null))).getImage();
+        WritableImage fxImage = new WritableImage(image.getWidth(), image.getHeight());
+        fxImage.getPixelWriter().setPixels(0, 0, image.getWidth(), image.getHeight(), PixelFormat.getIntArgbInstance(), pixels, 0, image.getWidth());
+        return fxImage;
+    }
+
+    /**
+     * Gets the array which holds the pixels of a TYPE_INT_ARGB image, so they can be read or written without copying them.
+     * @param image The image to get the pixels of.
+     * @return pixelArray, or null if the image is not a TYPE_INT_ARGB image which uses the whole array, such as a sub-image.
+     */
+    public static int[] getPixelArray(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB)
+            return null;
+
+        WritableRaster raster = image.getRaster();
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0 || raster.getDataBuffer().getOffset() != 0)
+            return null;
+
+        SampleModel sampleModel = raster.getSampleModel();
+        if (!(sampleModel instanceof SinglePixelPackedSampleModel) || ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride() != image.getWidth())
+            return null;
+
+        return ((DataBufferInt) raster.getDataBuffer()).getData();
     }
 
     /**
@@ -1283,31 +1304,6 @@ public class Utils {
         return (int) Math.sqrt(i);
     }
 
-    private static class TextureCache {
-        private long lastUpdate;
-        private final Image fxImage;
-
-        public TextureCache(Image fxImage) {
-            this.fxImage = fxImage;
-        }
-
-        /**
-         * Gets the image.
-         */
-        public Image getImage() {
-            this.lastUpdate = System.currentTimeMillis();
-            return fxImage;
-        }
-
-        /**
-         * Has this image expired?
-         * @return hasExpired
-         */
-        public boolean hasExpired() {
-            return (System.currentTimeMillis() - lastUpdate) > IMAGE_CACHE_EXPIRE;
-        }
-    }
-
     /**
      * Get an integer list with incrementing values.
      * @param size The size of the list
@@ -1466,7 +1462,7 @@ public class Utils {
             graphics.setColor(toAWTColor(key));
             graphics.fillRect(0, 0, colorImage.getWidth(), colorImage.getHeight());
             graphics.dispose();
-            return toFXImage(colorImage, true);
+            return toFXImage(colorImage);
         });
     }
 
@@ -1481,7 +1477,7 @@ public class Utils {
         graphics.setColor(toAWTColor(color));
         graphics.fillRect(0, 0, colorImage.getWidth(), colorImage.getHeight());
         graphics.dispose();
-        return toFXImage(colorImage, false);
+        return toFXImage(colorImage);
     }
 
     /**
@@ -1808,10 +1804,21 @@ public class Utils {
      * @return sha1Hash
      */
     public static String calculateSHA1Hash(byte[] data) {
+        return calculateSHA1Hash(data, 0, data.length);
+    }
+
+    /**
+     * Calculate the SHA1 hash of part of a byte array.
+     * @param data   The array holding the data to calculate the SHA1 hash of.
+     * @param offset The index of the first byte to hash.
+     * @param length The amount of bytes to hash.
+     * @return sha1Hash
+     */
+    public static String calculateSHA1Hash(byte[] data, int offset, int length) {
         try {
             MessageDigest crypt = MessageDigest.getInstance("SHA-1");
             crypt.reset();
-            crypt.update(data);
+            crypt.update(data, offset, length);
             return byteToHex(crypt.digest());
         } catch (NoSuchAlgorithmException e) {
             e.printStackTrace();